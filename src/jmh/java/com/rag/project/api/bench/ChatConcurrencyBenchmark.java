@@ -0,0 +1,110 @@
+package com.rag.project.api.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 채팅 요청 처리량: 플랫폼 스레드 풀(Tomcat 기본 200개) vs 가상 스레드
+ * - 요청 하나 = DB 조회(커넥션 풀 크기만큼 동시 실행) + 임베딩 호출 + 채팅 모델 호출 (모두 블로킹 대기로 흉내)
+ * - 모델 호출은 ModelGateway처럼 동시 호출 수를 제한 (여기서는 고정 크기 세마포어)
+ * - 결과(ms/op)는 requests개 요청이 모두 끝나는 데 걸린 시간, 처리량 = requests / 시간
+ * 실행: ./gradlew jmh -Pjmh.includes=ChatConcurrencyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ChatConcurrencyBenchmark {
+
+    public enum Threading { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public Threading threading;
+
+    //동시에 들어오는 채팅 요청 수
+    @Param({"1000"})
+    public int requests;
+
+    //플랫폼 모드의 요청 스레드 수 (server.tomcat.threads.max 기본값)
+    @Param({"200"})
+    public int platformThreads;
+
+    //DB 커넥션 풀 크기 (Hikari maximum-pool-size)
+    @Param({"20"})
+    public int dbConnections;
+
+    //채팅 모델 동시 호출 제한 (rag.model.chat.max-concurrency)
+    @Param({"32", "256"})
+    public int chatConcurrency;
+
+    //단계별 대기 시간 (ms)
+    @Param({"5"})
+    public long dbLatencyMs;
+
+    @Param({"50"})
+    public long embeddingLatencyMs;
+
+    @Param({"400"})
+    public long chatLatencyMs;
+
+    private ExecutorService executor;
+    private Semaphore dbPool;
+    private Semaphore embeddingPermits;
+    private Semaphore chatPermits;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = threading == Threading.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+        dbPool = new Semaphore(dbConnections, true);
+        embeddingPermits = new Semaphore(Math.max(1, chatConcurrency / 2), true);
+        chatPermits = new Semaphore(chatConcurrency, true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int concurrentChats() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(this::handleChat));
+        }
+        int done = 0;
+        for (Future<Integer> future : futures) {
+            done += future.get();
+        }
+        return done;
+    }
+
+    //ChatService.chat 한 번의 블로킹 구간 (회원/대화 조회 -> 질문 임베딩 -> 벡터 검색 -> 답변 생성 -> 저장)
+    private Integer handleChat() throws InterruptedException {
+        blocking(dbPool, dbLatencyMs);
+        blocking(embeddingPermits, embeddingLatencyMs);
+        blocking(dbPool, dbLatencyMs);
+        blocking(chatPermits, chatLatencyMs);
+        blocking(dbPool, dbLatencyMs);
+        return 1;
+    }
+
+    private static void blocking(Semaphore permits, long latencyMs) throws InterruptedException {
+        permits.acquire();
+        try {
+            Thread.sleep(latencyMs);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rag.project.api.bench;
+
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 청킹 비교: 호출마다 TokenTextSplitter 생성 (기존) vs TokenChunker
+ * - 한국어/영어 말뭉치를 corpusChars 글자만큼 생성해서 사용
+ * - 메모리 할당량은 -prof gc 로 확인
+ * 실행: ./gradlew jmh -Pjmh.includes=ChunkerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChunkerBenchmark {
+
+    private static final String[] KOREAN = {
+            "검색 증강 생성은 질문과 관련된 문서 조각을 찾아 모델에게 함께 전달하는 방식입니다.",
+            "업로드된 파일은 텍스트로 변환된 뒤 일정한 크기의 청크로 나뉩니다.",
+            "각 청크는 임베딩 모델을 거쳐 벡터로 저장되고, 질문이 들어오면 가까운 벡터를 찾습니다.",
+            "회의록, 보고서, 매뉴얼처럼 길이가 긴 문서도 같은 방식으로 처리됩니다.",
+            "표와 목록이 섞인 문서는 줄바꿈 위치가 문맥을 나누는 중요한 단서가 됩니다!",
+            "이 문단은 왜 필요한가요? 청크 경계가 문장 끝에 맞춰지는지 확인하기 위해서입니다.",
+    };
+
+    private static final String[] ENGLISH = {
+            "Retrieval augmented generation finds document fragments related to a question and passes them to the model.",
+            "Uploaded files are converted to text and then divided into chunks of a fixed token size.",
+            "Each chunk is turned into a vector by the embedding model, and the nearest vectors are searched at query time.",
+            "Long documents such as meeting notes, reports and manuals are processed the same way.",
+            "Tables and lists make line breaks an important signal for where context changes!",
+            "Why does this paragraph exist? To check that chunk boundaries land on sentence ends.",
+    };
+
+    @Param({"ko", "en"})
+    public String language;
+
+    @Param({"2000000"})
+    public int corpusChars;
+
+    private String corpus;
+    private TokenChunker chunker;
+
+    @Setup
+    public void setUp() {
+        String[] sentences = language.equals("ko") ? KOREAN : ENGLISH;
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(corpusChars + 200);
+        while (sb.length() < corpusChars) {
+            sb.append(sentences[random.nextInt(sentences.length)]);
+            sb.append(random.nextInt(5) == 0 ? "\n" : " ");
+        }
+        corpus = sb.toString();
+        chunker = new TokenChunker(new TokenCounter(), 800, 100, 5);
+    }
+
+    //기존 FileHandler.splitTextIntoChunks 방식
+    @Benchmark
+    public int tokenTextSplitter() {
+        TokenTextSplitter splitter = new TokenTextSplitter(800, 100, 5, 10000, true);
+        List<Document> documents = splitter.apply(List.of(new Document(corpus)));
+        return documents.stream().map(Document::getContent).toList().size();
+    }
+
+    //위치만 계산 (문자열 복사 없음)
+    @Benchmark
+    public int tokenChunkerSpans() {
+        return chunker.split(corpus).size();
+    }
+
+    //청크 문자열까지 만듦
+    @Benchmark
+    public int tokenChunkerStrings() {
+        return chunker.chunk(corpus).size();
+    }
+}
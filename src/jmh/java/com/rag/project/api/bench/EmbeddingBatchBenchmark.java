@@ -0,0 +1,71 @@
+package com.rag.project.api.bench;
+
+import com.rag.project.api.component.EmbeddingCache;
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.service.EmbeddingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 청크별 임베딩 요청 vs 배치 임베딩 요청 비교
+ * - 스텁 모델이 요청마다 latencyMs 만큼 지연되므로, 소요 시간은 요청 횟수에 비례
+ * 실행: ./gradlew jmh -Pjmh.includes=EmbeddingBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class EmbeddingBatchBenchmark {
+
+    @Param({"300"})
+    public int chunkCount;
+
+    @Param({"20"})
+    public long latencyMs;
+
+    @Param({"16", "100"})
+    public int batchSize;
+
+    private EmbeddingService embeddingService;
+    private List<String> chunks;
+
+    @Setup
+    public void setUp() {
+        //캐시 크기 0: 매 호출이 모델까지 가도록 함
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EmbeddingCache noCache = new EmbeddingCache(null, registry, "bench", 0, 0, false, 0);
+        //속도 한도는 측정에 영향이 없도록 넉넉하게
+        ModelGateway gateway = new ModelGateway(registry, 1_000_000, 1_000_000_000, 8, 1_000_000, 1_000_000_000, 16,
+                30_000, 1000, 1, 0, 0);
+        embeddingService = new EmbeddingService(new StubEmbeddingModel(latencyMs, 1536), new TokenCounter(), noCache, gateway);
+        ReflectionTestUtils.setField(embeddingService, "batchSize", batchSize);
+        ReflectionTestUtils.setField(embeddingService, "batchTokenBudget", 100_000);
+
+        chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(("청크 " + i + " 의 본문입니다. The quick brown fox jumps over the lazy dog. ").repeat(40));
+        }
+    }
+
+    @Benchmark
+    public int perChunk() {
+        int dims = 0;
+        for (String chunk : chunks) {
+            dims += embeddingService.getEmbedding(chunk).length;
+        }
+        return dims;
+    }
+
+    @Benchmark
+    public int batched() {
+        return embeddingService.getEmbeddings(chunks).size();
+    }
+}
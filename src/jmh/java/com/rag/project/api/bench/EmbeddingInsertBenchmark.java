@@ -0,0 +1,86 @@
+package com.rag.project.api.bench;
+
+import com.rag.project.api.domain.DocumentEmbeddingRepositoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 벡터 조각 저장 속도 (rows/s) 비교: 행마다 INSERT vs multi-row INSERT
+ * - pgvector가 설치된 PostgreSQL 필요, rag_bench 스키마에 전용 테이블을 만들어 사용
+ * 실행: BENCH_PG_URL=jdbc:postgresql://localhost:5432/rag BENCH_PG_USER=... BENCH_PG_PASSWORD=...
+ *      ./gradlew jmh -Pjmh.includes=EmbeddingInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(EmbeddingInsertBenchmark.ROWS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class EmbeddingInsertBenchmark {
+
+    static final int ROWS = 2000;
+    private static final int DIMENSIONS = 1536;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DocumentEmbeddingRepositoryImpl repository;
+    private List<String> segments;
+    private List<float[]> vectors;
+
+    @Setup
+    public void setUp() {
+        dataSource = PgBench.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS document_embeddings (" +
+                "embedding_id BIGSERIAL PRIMARY KEY, document_id BIGINT NOT NULL, member_id BIGINT, chunk_hash VARCHAR(64), " +
+                "text_segment TEXT, embedding_vector vector(" + DIMENSIONS + "))");
+
+        repository = new DocumentEmbeddingRepositoryImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(repository, "rowsPerStatement", 200);
+
+        Random random = new Random(42);
+        segments = new ArrayList<>(ROWS);
+        vectors = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            segments.add("조각 " + i + " The quick brown fox jumps over the lazy dog.");
+            vectors.add(PgBench.randomVector(random, DIMENSIONS));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE document_embeddings");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    //기존 방식: 청크마다 INSERT 한 번
+    @Benchmark
+    public int rowByRow() {
+        int inserted = 0;
+        for (int i = 0; i < ROWS; i++) {
+            inserted += jdbcTemplate.update(
+                    "INSERT INTO document_embeddings (document_id, member_id, text_segment, embedding_vector) " +
+                            "VALUES (?, ?, ?, cast(? as vector))",
+                    1L, 1L, segments.get(i), PgBench.toVectorLiteral(vectors.get(i)));
+        }
+        return inserted;
+    }
+
+    //multi-row INSERT (DocumentEmbeddingRepository.bulkInsert)
+    @Benchmark
+    public int bulk() {
+        return repository.bulkInsert(1L, 1L, segments, vectors);
+    }
+}
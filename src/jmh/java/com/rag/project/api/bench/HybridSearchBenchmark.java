@@ -0,0 +1,178 @@
+package com.rag.project.api.bench;
+
+import com.rag.project.api.domain.DocumentEmbeddingRepositoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정확한 단어(과목 코드 등)를 묻는 질문에서 벡터 검색 vs 하이브리드(벡터 + 전문 검색, RRF) 비교
+ * - 조각마다 고유 코드(C0, C1, ...)를 넣고, 질문 벡터는 해당 조각이 속한 주제의 중심 근처로 만듦
+ *   -> 벡터만으로는 같은 주제의 다른 조각과 구분이 안 되고, 코드 일치가 있어야 찾을 수 있음
+ * - 재현율(정답 조각이 상위 K개에 들었는지)은 각 조합의 측정이 끝나면 표준 출력으로 찍힘
+ * - 쿼리는 DocumentEmbeddingRepositoryImpl.findNearest / findHybrid 와 같은 형태
+ * 실행: BENCH_PG_URL=... ./gradlew jmh -Pjmh.includes=HybridSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class HybridSearchBenchmark {
+
+    //코퍼스 생성 시간을 줄이기 위해 실제(1536)보다 작은 차원 사용
+    private static final int DIMENSIONS = 256;
+    private static final int TOPICS = 50;
+    private static final int QUERIES = 100;
+    private static final int K = 5;
+    private static final int CANDIDATES = 40;
+    private static final int RRF_K = 60;
+    //서비스와 같은 키워드 검색 식 (생성 컬럼 없이 식 GIN 인덱스 사용)
+    private static final String TEXT_VECTOR = DocumentEmbeddingRepositoryImpl.textVector("simple", "e.text_segment");
+
+    @Param({"20000"})
+    public int corpusSize;
+
+    @Param({"VECTOR", "HYBRID"})
+    public String mode;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private List<float[]> centers;
+    private List<String> queryVectors;
+    private List<String> queryTexts;
+    private List<Long> answers;
+    private int next;
+    private long hits;
+    private long total;
+
+    @Setup
+    public void setUp() {
+        dataSource = PgBench.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Random random = new Random(42);
+        centers = new ArrayList<>(TOPICS);
+        for (int i = 0; i < TOPICS; i++) {
+            centers.add(PgBench.randomVector(random, DIMENSIONS));
+        }
+        loadCorpus(random);
+
+        //정답 조각의 주제 중심 근처 벡터 + 코드가 들어간 질문
+        queryVectors = new ArrayList<>(QUERIES);
+        queryTexts = new ArrayList<>(QUERIES);
+        answers = new ArrayList<>(QUERIES);
+        Random queryRandom = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            long id = 1 + queryRandom.nextInt(corpusSize);
+            int topic = (int) ((id - 1) % TOPICS);
+            queryVectors.add(PgBench.toVectorLiteral(jitter(centers.get(topic), queryRandom, 0.3)));
+            queryTexts.add("c" + (id - 1) + ":* | 수강:* | 규정:*");
+            answers.add(id);
+        }
+    }
+
+    private void loadCorpus(Random random) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE table_schema = ? AND table_name = 'bench_chunks'",
+                Integer.class, PgBench.SCHEMA);
+        if (existing != null && existing > 0) {
+            Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM bench_chunks", Long.class);
+            Integer textIndex = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_indexes WHERE schemaname = ? AND indexname = 'bench_chunks_tsv_idx'",
+                    Integer.class, PgBench.SCHEMA);
+            if (rows != null && rows == corpusSize && textIndex != null && textIndex > 0) {
+                return; //이전 실행에서 만든 코퍼스 재사용
+            }
+            jdbcTemplate.execute("DROP TABLE bench_chunks");
+        }
+        jdbcTemplate.execute("CREATE TABLE bench_chunks (embedding_id BIGSERIAL PRIMARY KEY, member_id BIGINT, " +
+                "text_segment TEXT, embedding_vector vector(" + DIMENSIONS + "))");
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < corpusSize; i++) {
+            int topic = i % TOPICS;
+            String text = "주제 " + topic + " 과목 C" + i + " 수강 규정 안내. 신청 기간과 정원, 선수 과목을 확인하세요.";
+            batch.add(new Object[]{text, PgBench.toVectorLiteral(jitter(centers.get(topic), random, 0.3))});
+            if (batch.size() == 500) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+
+        jdbcTemplate.execute("CREATE INDEX bench_chunks_vec_idx ON bench_chunks " +
+                "USING hnsw (embedding_vector vector_l2_ops) WITH (m = 16, ef_construction = 64)");
+        jdbcTemplate.execute("CREATE INDEX bench_chunks_tsv_idx ON bench_chunks USING gin (" +
+                DocumentEmbeddingRepositoryImpl.textVector("simple", "text_segment") + ")");
+        jdbcTemplate.execute("ANALYZE bench_chunks");
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bench_chunks (member_id, text_segment, embedding_vector) " +
+                "VALUES (1, ?, cast(? as vector))", batch);
+        batch.clear();
+    }
+
+    private static float[] jitter(float[] center, Random random, double noise) {
+        float[] vector = new float[center.length];
+        for (int d = 0; d < center.length; d++) {
+            vector[d] = center[d] + (float) (random.nextGaussian() * noise);
+        }
+        return vector;
+    }
+
+    private List<Long> vectorSearch(String queryVector) {
+        return jdbcTemplate.queryForList(
+                "SELECT e.embedding_id FROM bench_chunks e WHERE e.member_id = 1 " +
+                        "ORDER BY e.embedding_vector <-> cast(? as vector) LIMIT " + K,
+                Long.class, queryVector);
+    }
+
+    private List<Long> hybridSearch(String queryVector, String tsQuery) {
+        return jdbcTemplate.queryForList(
+                "WITH vec AS (" +
+                        "  SELECT embedding_id, row_number() OVER (ORDER BY distance) AS rnk FROM (" +
+                        "    SELECT e.embedding_id, e.embedding_vector <-> cast(? as vector) AS distance " +
+                        "    FROM bench_chunks e WHERE e.member_id = 1 ORDER BY distance LIMIT " + CANDIDATES + ") v" +
+                        "), kw AS (" +
+                        "  SELECT embedding_id, row_number() OVER (ORDER BY rank DESC) AS rnk FROM (" +
+                        "    SELECT e.embedding_id, ts_rank_cd(" + TEXT_VECTOR + ", q) AS rank " +
+                        "    FROM bench_chunks e, to_tsquery('simple'::regconfig, ?) q " +
+                        "    WHERE e.member_id = 1 AND " + TEXT_VECTOR + " @@ q ORDER BY rank DESC LIMIT " + CANDIDATES + ") k" +
+                        "), fused AS (" +
+                        "  SELECT embedding_id, sum(score) AS score FROM (" +
+                        "    SELECT embedding_id, 1.0 / (" + RRF_K + " + rnk) AS score FROM vec" +
+                        "    UNION ALL" +
+                        "    SELECT embedding_id, 1.0 / (" + RRF_K + " + rnk) AS score FROM kw" +
+                        "  ) s GROUP BY embedding_id" +
+                        ") SELECT embedding_id FROM fused ORDER BY score DESC LIMIT " + K,
+                Long.class, queryVector, tsQuery);
+    }
+
+    @Benchmark
+    public int query() {
+        int i = next++ % QUERIES;
+        List<Long> result = mode.equals("HYBRID")
+                ? hybridSearch(queryVectors.get(i), queryTexts.get(i))
+                : vectorSearch(queryVectors.get(i));
+        if (result.contains(answers.get(i))) {
+            hits++;
+        }
+        total++;
+        return result.size();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[%s] recall@%d = %.3f%n", mode, K, total == 0 ? 0.0 : (double) hits / total);
+        dataSource.destroy();
+    }
+}
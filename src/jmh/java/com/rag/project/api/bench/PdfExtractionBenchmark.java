@@ -0,0 +1,97 @@
+package com.rag.project.api.bench;
+
+import com.rag.project.api.component.FileHandler;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 큰 PDF 텍스트 추출: PDFTextStripper 하나 vs 페이지 구간 병렬 추출 (FileHandler)
+ * - 벤치마크 시작 시 pageCount 페이지짜리 PDF를 임시 파일로 생성
+ * 실행: ./gradlew jmh -Pjmh.includes=PdfExtractionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+
+    @Param({"500"})
+    public int pageCount;
+
+    @Param({"1", "4", "8"})
+    public int parallelism;
+
+    @Param({"32"})
+    public int pagesPerTask;
+
+    private File pdf;
+    private ForkJoinPool pool;
+    private FileHandler fileHandler;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = Files.createTempFile("rag-bench-", ".pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 0; page < pageCount; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(40, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText("Page " + page + " line " + line + ": The quick brown fox jumps over the lazy dog.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(pdf);
+        }
+
+        pool = new ForkJoinPool(parallelism);
+        fileHandler = new FileHandler(pool, new TokenChunker(new TokenCounter(), 800, 100, 5));
+        ReflectionTestUtils.setField(fileHandler, "pdfPagesPerTask", pagesPerTask);
+        ReflectionTestUtils.setField(fileHandler, "pdfMaxMainMemoryMb", 16L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+        pdf.delete();
+    }
+
+    //기존 방식: 문서 전체를 PDFTextStripper 하나로 추출
+    @Benchmark
+    public int singleStripper() throws IOException {
+        try (PDDocument document = PDDocument.load(pdf)) {
+            return new PDFTextStripper().getText(document).length();
+        }
+    }
+
+    //페이지 구간 병렬 추출 (parallelism=1이면 한 스레드로 페이지별 추출)
+    @Benchmark
+    public long pageRanges() throws IOException {
+        long[] chars = new long[1];
+        fileHandler.extractFromPdf(pdf, text -> chars[0] += text.length());
+        return chars[0];
+    }
+}
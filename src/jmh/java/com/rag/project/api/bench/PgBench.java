@@ -0,0 +1,53 @@
+package com.rag.project.api.bench;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.Random;
+
+/**
+ * PostgreSQL(pgvector) 벤치마크 공통 설정
+ * - 접속 정보는 환경 변수(BENCH_PG_URL, BENCH_PG_USER, BENCH_PG_PASSWORD)로 받음
+ * - 운영 테이블을 건드리지 않도록 rag_bench 스키마를 search_path 앞에 둠
+ */
+final class PgBench {
+
+    static final String SCHEMA = "rag_bench";
+
+    private PgBench() {
+    }
+
+    static SingleConnectionDataSource dataSource() {
+        String url = System.getenv("BENCH_PG_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("BENCH_PG_URL 환경 변수가 필요합니다 (pgvector가 설치된 PostgreSQL)");
+        }
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                url, System.getenv("BENCH_PG_USER"), System.getenv("BENCH_PG_PASSWORD"), true);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        return dataSource;
+    }
+
+    static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    static String toVectorLiteral(float[] vector) {
+        StringBuilder sb = new StringBuilder(vector.length * 12).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
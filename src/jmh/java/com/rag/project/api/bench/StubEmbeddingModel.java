@@ -0,0 +1,54 @@
+package com.rag.project.api.bench;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 원격 임베딩 API 대신 쓰는 로컬 스텁
+ * - 요청 1회당 고정 지연(네트워크 왕복)을 흉내냄
+ */
+public class StubEmbeddingModel implements EmbeddingModel {
+
+    private final long latencyMs;
+    private final int dimensions;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public StubEmbeddingModel(long latencyMs, int dimensions) {
+        this.latencyMs = latencyMs;
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Embedding> embeddings = new ArrayList<>();
+        List<String> texts = request.getInstructions();
+        for (int i = 0; i < texts.size(); i++) {
+            float[] vector = new float[dimensions];
+            vector[i % dimensions] = texts.get(i).length();
+            embeddings.add(new Embedding(vector, i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+}
@@ -0,0 +1,146 @@
+package com.rag.project.api.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 벡터 검색 지연 시간과 재현율(recall@k) 비교: 전체 스캔 vs HNSW vs IVFFlat
+ * - 합성 코퍼스(군집이 있는 랜덤 벡터)를 rag_bench 스키마에 만들고, 전체 스캔 결과를 정답으로 삼음
+ * - 재현율은 각 조합의 측정이 끝나면 표준 출력으로 찍힘
+ * 실행: BENCH_PG_URL=... ./gradlew jmh -Pjmh.includes=VectorSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VectorSearchBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+    private static final int CLUSTERS = 50;
+    private static final int QUERIES = 50;
+    private static final int K = 5;
+
+    @Param({"20000"})
+    public int corpusSize;
+
+    //NONE: 전체 스캔, HNSW:ef_search, IVFFLAT:probes
+    @Param({"NONE:0", "HNSW:40", "HNSW:100", "IVFFLAT:1", "IVFFLAT:10"})
+    public String index;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private List<String> queries;
+    private List<Set<Long>> exact;
+    private int next;
+    private long hits;
+    private long total;
+
+    @Setup
+    public void setUp() {
+        dataSource = PgBench.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        loadCorpus();
+
+        //정답: 인덱스 없이 정확한 최근접 K개
+        jdbcTemplate.execute("DROP INDEX IF EXISTS bench_vectors_ann_idx");
+        queries = new ArrayList<>(QUERIES);
+        exact = new ArrayList<>(QUERIES);
+        Random random = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            String query = PgBench.toVectorLiteral(PgBench.randomVector(random, DIMENSIONS));
+            queries.add(query);
+            exact.add(new HashSet<>(search(query)));
+        }
+
+        String[] parts = index.split(":");
+        String type = parts[0];
+        int knob = Integer.parseInt(parts[1]);
+        switch (type) {
+            case "HNSW" -> {
+                jdbcTemplate.execute("CREATE INDEX bench_vectors_ann_idx ON bench_vectors " +
+                        "USING hnsw (embedding vector_l2_ops) WITH (m = 16, ef_construction = 64)");
+                jdbcTemplate.execute("SET hnsw.ef_search = " + knob);
+            }
+            case "IVFFLAT" -> {
+                jdbcTemplate.execute("CREATE INDEX bench_vectors_ann_idx ON bench_vectors " +
+                        "USING ivfflat (embedding vector_l2_ops) WITH (lists = " + Math.max(corpusSize / 1000, 10) + ")");
+                jdbcTemplate.execute("SET ivfflat.probes = " + knob);
+            }
+            default -> {
+            }
+        }
+        jdbcTemplate.execute("ANALYZE bench_vectors");
+    }
+
+    private void loadCorpus() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE table_schema = ? AND table_name = 'bench_vectors'",
+                Integer.class, PgBench.SCHEMA);
+        if (existing != null && existing > 0) {
+            Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM bench_vectors", Long.class);
+            if (rows != null && rows == corpusSize) {
+                return; //이전 실행에서 만든 코퍼스 재사용
+            }
+            jdbcTemplate.execute("DROP TABLE bench_vectors");
+        }
+        jdbcTemplate.execute("CREATE TABLE bench_vectors (id BIGSERIAL PRIMARY KEY, embedding vector(" + DIMENSIONS + "))");
+
+        Random random = new Random(42);
+        List<float[]> centers = new ArrayList<>(CLUSTERS);
+        for (int i = 0; i < CLUSTERS; i++) {
+            centers.add(PgBench.randomVector(random, DIMENSIONS));
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < corpusSize; i++) {
+            float[] center = centers.get(random.nextInt(CLUSTERS));
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = center[d] + (float) (random.nextGaussian() * 0.3);
+            }
+            batch.add(new Object[]{PgBench.toVectorLiteral(vector)});
+            if (batch.size() == 500) {
+                jdbcTemplate.batchUpdate("INSERT INTO bench_vectors (embedding) VALUES (cast(? as vector))", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO bench_vectors (embedding) VALUES (cast(? as vector))", batch);
+        }
+    }
+
+    private List<Long> search(String query) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM bench_vectors ORDER BY embedding <-> cast(? as vector) LIMIT " + K,
+                Long.class, query);
+    }
+
+    @Benchmark
+    public int query() {
+        int i = next++ % QUERIES;
+        List<Long> result = search(queries.get(i));
+        for (Long id : result) {
+            if (exact.get(i).contains(id)) {
+                hits++;
+            }
+        }
+        total += K;
+        return result.size();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n[%s] recall@%d = %.3f%n", index, K, total == 0 ? 0.0 : (double) hits / total);
+        jdbcTemplate.execute("DROP INDEX IF EXISTS bench_vectors_ann_idx");
+        dataSource.destroy();
+    }
+}
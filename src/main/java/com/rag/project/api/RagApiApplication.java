@@ -9,6 +9,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -28,6 +29,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
         bearerFormat = "JWT"
 )
 @EnableJpaAuditing //자동 시간 기록 기능 활성화
+@EnableScheduling //백그라운드 주기 작업(학습 대기열 스윕 등) 활성화
 @SpringBootApplication
 public class RagApiApplication {
 
@@ -0,0 +1,182 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.domain.DocumentEmbeddingRepositoryImpl;
+import com.rag.project.api.domain.EmbeddingCacheEntry;
+import com.rag.project.api.domain.EmbeddingCacheEntryRepository;
+import com.rag.project.api.util.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 질문 임베딩 캐시
+ * - 1차: 메모리 (LRU, 개수 + TTL 제한, float[] 그대로 보관)
+ * - 2차: DB embedding_cache 테이블 (선택, 재시작 후에도 유지)
+ * - 키: SHA-256(모델명 + 정규화된 텍스트) → 유니코드 정규화(NFC)와 공백만 다른 질문은 같은 벡터 사용
+ * - DB 캐시는 주기적으로 기간이 지난 행을 삭제
+ */
+@Slf4j
+@Component
+public class EmbeddingCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingCacheEntryRepository entryRepository;
+    private final String modelName;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Duration persistentTtl;
+
+    //접근 순서 LinkedHashMap = LRU
+    private final LinkedHashMap<String, CachedVector> entries;
+
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+
+    public EmbeddingCache(EmbeddingCacheEntryRepository entryRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.ai.openai.embedding.options.model:text-embedding-ada-002}") String modelName,
+                          @Value("${rag.embedding.cache.max-entries:10000}") int maxEntries,
+                          @Value("${rag.embedding.cache.ttl-minutes:1440}") long ttlMinutes,
+                          @Value("${rag.embedding.cache.persistent:false}") boolean persistent,
+                          @Value("${rag.embedding.cache.persistent-ttl-days:30}") long persistentTtlDays) {
+        this.entryRepository = entryRepository;
+        this.modelName = modelName;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.persistent = persistent;
+        this.persistentTtl = Duration.ofDays(persistentTtlDays);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedVector> eldest) {
+                return size() > EmbeddingCache.this.maxEntries;
+            }
+        };
+
+        this.memoryHits = Counter.builder("rag.embedding.cache.requests").tag("result", "hit").tag("tier", "memory")
+                .register(meterRegistry);
+        this.persistentHits = Counter.builder("rag.embedding.cache.requests").tag("result", "hit").tag("tier", "db")
+                .register(meterRegistry);
+        this.misses = Counter.builder("rag.embedding.cache.requests").tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        Gauge.builder("rag.embedding.cache.size", this, EmbeddingCache::size).register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 벡터 조회 (메모리 → DB 순)
+     */
+    public Optional<float[]> get(String text) {
+        String key = keyOf(text);
+
+        float[] vector = getFromMemory(key);
+        if (vector != null) {
+            memoryHits.increment();
+            return Optional.of(vector.clone());
+        }
+
+        if (persistent) {
+            vector = getFromDatabase(key);
+            if (vector != null) {
+                persistentHits.increment();
+                putInMemory(key, vector);
+                return Optional.of(vector.clone());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 새로 계산한 벡터 저장
+     */
+    public void put(String text, float[] vector) {
+        String key = keyOf(text);
+        float[] copy = vector.clone();
+        putInMemory(key, copy);
+
+        if (persistent) {
+            try {
+                entryRepository.upsert(key, DocumentEmbeddingRepositoryImpl.toVectorLiteral(copy));
+            } catch (Exception e) {
+                //캐시 저장 실패는 요청 실패로 만들지 않음
+                log.warn("임베딩 캐시 DB 저장 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 기간이 지난 DB 캐시 삭제 (조회 때 걸러내기만 하면 테이블이 계속 커짐)
+     */
+    @Scheduled(fixedDelayString = "${rag.embedding.cache.purge-interval-ms:3600000}",
+            initialDelayString = "${rag.embedding.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!persistent) {
+            return;
+        }
+        try {
+            int deleted = entryRepository.deleteExpired(LocalDateTime.now().minus(persistentTtl));
+            if (deleted > 0) {
+                log.info("만료된 임베딩 캐시 삭제: {}건", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("임베딩 캐시 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized float[] getFromMemory(String key) {
+        CachedVector cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.vector();
+    }
+
+    private synchronized void putInMemory(String key, float[] vector) {
+        entries.put(key, new CachedVector(vector, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private float[] getFromDatabase(String key) {
+        try {
+            return entryRepository.findById(key)
+                    .filter(entry -> entry.getCreatedAt().isAfter(LocalDateTime.now().minus(persistentTtl)))
+                    .map(EmbeddingCacheEntry::getEmbeddingVector)
+                    .orElse(null);
+        } catch (Exception e) {
+            log.warn("임베딩 캐시 DB 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    //모델명 + 정규화된 텍스트의 SHA-256
+    //대소문자는 그대로 둠 (임베딩 모델은 대소문자를 구분하므로 "US"와 "us"는 다른 벡터)
+    private String keyOf(String text) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC).strip())
+                .replaceAll(" ");
+        return HashUtil.sha256Hex(modelName + "\u0000" + normalized);
+    }
+
+    private record CachedVector(float[] vector, long expiresAt) {}
+}
@@ -0,0 +1,30 @@
+package com.rag.project.api.component;
+
+/**
+ * 텍스트 추출을 지원하는 파일 형식
+ */
+public enum FileFormat {
+    PDF, TEXT, DOCX, PPTX;
+
+    /**
+     * 확장자/Content-Type으로 형식 판별, 지원하지 않으면 null
+     */
+    public static FileFormat of(String originalFileName, String contentType) {
+        String type = contentType != null ? contentType : "";
+        String fileName = originalFileName != null ? originalFileName.toLowerCase() : "";
+
+        if (type.equals("application/pdf") || fileName.endsWith(".pdf")) {
+            return PDF;
+        }
+        if (type.startsWith("text/") || fileName.endsWith(".txt")) {
+            return TEXT;
+        }
+        if (fileName.endsWith(".docx")) {
+            return DOCX;
+        }
+        if (fileName.endsWith(".pptx")) {
+            return PPTX;
+        }
+        return null;
+    }
+}
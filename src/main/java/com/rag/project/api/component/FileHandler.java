@@ -1,107 +1,255 @@
 package com.rag.project.api.component;
 
-import org.springframework.ai.document.Document;
+import com.rag.project.api.component.chunking.ChunkingStrategy;
+import com.rag.project.api.component.chunking.TextBlock;
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFSlide;
 import org.apache.poi.xslf.usermodel.XSLFTextShape;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 @Component
+@RequiredArgsConstructor
 public class FileHandler {
 
-    //스마트 청킹, 800토큰 = 한글 400~500자 / 영문 3000자
-    private static final int DEFAULT_CHUNK_SIZE = 800;
-    //오버랩: 문맥 단절을 막기 위해 앞뒤 내용을 100토큰씩 겹치게
-    private static final int DEFAULT_CHUNK_OVERLAP = 100;
+    private final ForkJoinPool pdfExtractionPool; //PDF 페이지 구간 병렬 추출용
+    private final TokenChunker tokenChunker; //토큰 기준 청킹 (인코딩 재사용)
+
+    //병렬 추출 시 한 작업이 맡을 페이지 수 (이보다 페이지가 적은 PDF는 한 스레드로 추출)
+    @Value("${rag.extraction.pdf-pages-per-task:32}")
+    private int pdfPagesPerTask;
+
+    //PDF 원본을 메모리에 둘 최대 크기, 넘으면 임시 파일 사용 (0 이하: 항상 임시 파일)
+    @Value("${rag.extraction.pdf-max-main-memory-mb:16}")
+    private long pdfMaxMainMemoryMb;
+
     /**
      * 파일에서 텍스트를 추출
      */
     public String extractText(MultipartFile file) throws IOException {
-        String contentType = file.getContentType();
-        String fileName = file.getOriginalFilename().toLowerCase();
-
-        //pdf 파일
-        if(contentType.equals("application/pdf") || fileName.endsWith(".pdf")){
-            try(PDDocument document = PDDocument.load(file.getInputStream())){
-                PDFTextStripper stripper = new PDFTextStripper();
-                return stripper.getText(document);
+        StringBuilder sb = new StringBuilder();
+        try(InputStream in = file.getInputStream()){
+            extractText(in, file.getOriginalFilename(), file.getContentType(), block -> sb.append(block.text()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 텍스트 추출을 지원하는 형식인지 확인 (업로드 시점에 미리 거르기 위함)
+     */
+    public boolean supports(String originalFileName, String contentType) {
+        return FileFormat.of(originalFileName, contentType) != null;
+    }
+
+    /**
+     * 스트림에서 텍스트를 추출해서 바로 청크로 나눠 내보냄
+     * - 파일 전체 문자열을 만들지 않고, 청킹 방식이 필요로 하는 만큼만 메모리에 유지
+     *
+     * @param strategy  청킹 방식 (업로드 시 선택)
+     * @param chunkSink 청크가 만들어질 때마다 호출 (null byte 제거된 텍스트)
+     * @return 내보낸 청크 수
+     */
+    public int extractChunks(InputStream in, String originalFileName, String contentType,
+                             ChunkingStrategy strategy, Consumer<String> chunkSink) throws IOException {
+        ChunkingStrategy.Session session = strategy.open(chunkSink);
+        extractText(in, originalFileName, contentType, block -> session.accept(block.withText(sanitizeText(block.text()))));
+        return session.finish();
+    }
+
+    /**
+     * 텍스트를 구조 단위로 조금씩 추출 (PDF는 페이지, Word는 제목/문단/표, PPT는 슬라이드, 텍스트는 줄)
+     */
+    public void extractText(InputStream in, String originalFileName, String contentType,
+                            Consumer<TextBlock> blockSink) throws IOException {
+        FileFormat format = FileFormat.of(originalFileName, contentType);
+        if(format == null){
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + contentType);
+        }
+
+        switch (format) {
+            //pdf 파일
+            case PDF -> extractFromPdf(in, blockSink);
+            //텍스트 파일
+            case TEXT -> {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while((line = reader.readLine()) != null){
+                    blockSink.accept(new TextBlock(TextBlock.Type.LINE, line + "\n"));
+                }
+            }
+            //Word 파일
+            case DOCX -> extractFromWord(in, blockSink);
+            //PPT 파일
+            case PPTX -> extractFromPpt(in, blockSink);
+        }
+    }
+
+    //PDF 파일 텍스트 추출 (페이지 단위)
+    private void extractFromPdf(InputStream in, Consumer<TextBlock> blockSink) throws IOException {
+        //페이지 구간을 여러 스레드가 따로 읽을 수 있도록 임시 파일로 받아둠
+        Path tempFile = Files.createTempFile("rag-pdf-", ".pdf");
+        try {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            extractFromPdf(tempFile.toFile(), page -> blockSink.accept(new TextBlock(TextBlock.Type.PAGE, page)));
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * PDF 파일 텍스트 추출
+     * - 페이지가 많으면 구간으로 나눠 fork-join 풀에서 병렬 추출 (구간마다 별도 PDDocument/PDFTextStripper)
+     * - 결과는 항상 페이지 순서대로 내보냄
+     */
+    public void extractFromPdf(File file, Consumer<String> textSink) throws IOException {
+        int pageCount;
+        //원본은 메모리 대신 임시 파일(scratch file)에 두고 읽음
+        try(PDDocument document = PDDocument.load(file, pdfMemoryUsage())){
+            pageCount = document.getNumberOfPages();
+            if (pdfExtractionPool.getParallelism() <= 1 || pageCount <= pdfPagesPerTask) {
+                stripPages(document, 1, pageCount, textSink);
+                return;
             }
         }
+        extractPdfInParallel(file, pageCount, textSink);
+    }
 
-        //텍스트 파일
-        else if(contentType.startsWith("text/") || fileName.endsWith(".txt")){
-            return new String(file.getBytes(), java.nio.charset.StandardCharsets.UTF_8);
+    private void extractPdfInParallel(File file, int pageCount, Consumer<String> textSink) {
+        //풀이 쉬지 않도록 스레드 수의 2배까지 구간을 미리 제출 (메모리에는 그만큼의 페이지만 유지)
+        int maxRunning = pdfExtractionPool.getParallelism() * 2;
+        Deque<ForkJoinTask<List<String>>> running = new ArrayDeque<>();
+        int nextPage = 1;
+        try {
+            while (nextPage <= pageCount || !running.isEmpty()) {
+                while (nextPage <= pageCount && running.size() < maxRunning) {
+                    int startPage = nextPage;
+                    int endPage = Math.min(pageCount, startPage + pdfPagesPerTask - 1);
+                    running.add(pdfExtractionPool.submit(() -> extractPageRange(file, startPage, endPage)));
+                    nextPage = endPage + 1;
+                }
+                //앞 구간부터 순서대로 내보냄
+                running.poll().join().forEach(textSink);
+            }
+        } finally {
+            running.forEach(task -> task.cancel(true));
         }
+    }
 
-        //Word 파일
-        else if(fileName.endsWith(".docx")){
-            return extractFromWord(file);
+    //한 구간을 자기 PDDocument로 열어서 페이지별 텍스트를 반환
+    private List<String> extractPageRange(File file, int startPage, int endPage) throws IOException {
+        List<String> pages = new ArrayList<>(endPage - startPage + 1);
+        try(PDDocument document = PDDocument.load(file, pdfMemoryUsage())){
+            stripPages(document, startPage, endPage, pages::add);
         }
+        return pages;
+    }
 
-        //PPT 파일
-        else if(fileName.endsWith(".pptx")){
-            return extractFromPpt(file);
+    private void stripPages(PDDocument document, int startPage, int endPage, Consumer<String> textSink) throws IOException {
+        StringWriter pageText = new StringWriter();
+        PDFTextStripper stripper = new PDFTextStripper() {
+            //한 페이지가 끝날 때마다 내보내고 비움
+            @Override
+            protected void endPage(PDPage page) throws IOException {
+                super.endPage(page);
+                output.flush();
+                textSink.accept(pageText.toString());
+                pageText.getBuffer().setLength(0);
+            }
+        };
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        stripper.writeText(document, pageText);
+    }
+
+    private MemoryUsageSetting pdfMemoryUsage() {
+        if (pdfMaxMainMemoryMb <= 0) {
+            return MemoryUsageSetting.setupTempFileOnly();
         }
-        else{
-            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + contentType);
+        return MemoryUsageSetting.setupMixed(pdfMaxMainMemoryMb * 1024L * 1024L);
+    }
+
+    //Word 파일 텍스트 추출 (제목/문단/표 단위)
+    private void extractFromWord(InputStream in, Consumer<TextBlock> blockSink) throws IOException{
+        try(XWPFDocument doc = new XWPFDocument(in)){
+            for (IBodyElement element : doc.getBodyElements()) {
+                if (element instanceof XWPFParagraph paragraph) {
+                    TextBlock.Type type = isHeading(doc, paragraph) ? TextBlock.Type.HEADING : TextBlock.Type.PARAGRAPH;
+                    blockSink.accept(new TextBlock(type, paragraph.getText() + "\n"));
+                } else if (element instanceof XWPFTable table) {
+                    blockSink.accept(new TextBlock(TextBlock.Type.TABLE, table.getText() + "\n"));
+                }
+            }
         }
     }
-    //Word 파일 텍스트 추출
-    private String extractFromWord(MultipartFile file) throws IOException{
-        try(XWPFDocument doc = new XWPFDocument(file.getInputStream());
-            XWPFWordExtractor extractor = new XWPFWordExtractor(doc)){
-            return extractor.getText();
+
+    //제목 스타일(Heading 1~9, Title) 문단인지 (스타일 ID는 언어별로 달라서 이름으로 확인)
+    private boolean isHeading(XWPFDocument doc, XWPFParagraph paragraph) {
+        String styleId = paragraph.getStyleID();
+        if (styleId == null) {
+            return false;
         }
+        XWPFStyle style = doc.getStyles() != null ? doc.getStyles().getStyle(styleId) : null;
+        String name = (style != null && style.getName() != null ? style.getName() : styleId).toLowerCase();
+        return name.startsWith("heading") || name.equals("title");
     }
-    // PPT 파일 텍스트 추출
-    private String extractFromPpt(MultipartFile file) throws IOException {
-        StringBuilder sb = new StringBuilder();
 
+    // PPT 파일 텍스트 추출 (슬라이드 단위)
+    private void extractFromPpt(InputStream in, Consumer<TextBlock> blockSink) throws IOException {
         // XMLSlideShow: .pptx 파일을 읽는 POI 클래스
-        try (XMLSlideShow ppt = new XMLSlideShow(file.getInputStream())) {
+        try (XMLSlideShow ppt = new XMLSlideShow(in)) {
             // 슬라이드 하나씩 순회
             for (XSLFSlide slide : ppt.getSlides()) {
+                StringBuilder sb = new StringBuilder();
                 // 슬라이드 안에 있는 도형(Shape)들 중에서 '글 상자'만 찾음
                 slide.getShapes().stream()
                         .filter(shape -> shape instanceof XSLFTextShape) // 텍스트가 있는 도형인가?
                         .map(shape -> (XSLFTextShape) shape)             // 형변환
                         .forEach(textShape -> sb.append(textShape.getText()).append("\n")); // 텍스트 꺼내서 합치기
+                blockSink.accept(new TextBlock(TextBlock.Type.SLIDE, sb.toString()));
             }
         }
-        return sb.toString();
     }
 
     /**
-     * SPRING AI TokenTextSplitter를 이용한 스마트 청킹
+     * 토큰 단위 청킹 (TokenChunker)
      * - 단순 글자 수가 아닌 '토큰' 단위로 자름
-     * - 문맥 유지를 위해 오버랩 적용
+     * - 문장이 끝나는 곳에서 끊어서 문맥 유지
      */
     //텍스트 분할 메서드
     public List<String> splitTextIntoChunks(String text){
         if(text == null || text.isEmpty()){
             return new ArrayList<>();
         }
-        // TokenTextSplitter 생성
-        TokenTextSplitter splitter = new TokenTextSplitter(DEFAULT_CHUNK_SIZE, DEFAULT_CHUNK_OVERLAP, 5, 10000, true);
-
-        //텍스트를 document 리스트로 분할
-        List<Document> documents = splitter.apply(List.of(new Document(text)));
-
-        //document 객체에서 다시 텍스트만 추출, 리스트로 반환
-        return documents.stream()
-                .map(Document::getContent)
-                .collect(Collectors.toList());
+        return tokenChunker.chunk(text);
     }
 
     //텍스트 정제 함수
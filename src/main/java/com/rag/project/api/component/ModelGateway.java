@@ -0,0 +1,396 @@
+package com.rag.project.api.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 임베딩/채팅 모델 호출 관문
+ * - 요청 수(RPM)/토큰 수(TPM) 토큰 버킷: 제공사 한도를 넘기 전에 여기서 속도를 맞춤
+ * - 동시 호출 수는 AIMD로 조절: 성공하면 조금씩 늘리고, 제공사 429를 받으면 절반으로 줄임
+ * - 일시적 오류(429, 5xx, 연결 오류)는 지터를 준 지수 백오프로 재시도
+ * - 대기열이 가득 차거나 max-wait-ms 안에 차례가 오지 않으면 바로 ModelOverloadedException (429)
+ * - Spring AI 자체 재시도는 ModelClientConfig에서 끔 (재시도가 겹쳐 곱해지지 않도록)
+ */
+@Slf4j
+@Component
+public class ModelGateway {
+
+    public enum Model { EMBEDDING, CHAT }
+
+    //예외 메시지 맨 앞의 HTTP 상태 코드 429
+    private static final Pattern RATE_LIMITED_STATUS = Pattern.compile("429(\\s|-|$)");
+
+    private final Map<Model, Lane> lanes = new EnumMap<>(Model.class);
+    private final long maxWaitNanos;
+    private final int maxQueue;
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public ModelGateway(MeterRegistry meterRegistry,
+                        @Value("${rag.model.embedding.rpm:3000}") int embeddingRpm,
+                        @Value("${rag.model.embedding.tpm:1000000}") int embeddingTpm,
+                        @Value("${rag.model.embedding.max-concurrency:8}") int embeddingConcurrency,
+                        @Value("${rag.model.chat.rpm:500}") int chatRpm,
+                        @Value("${rag.model.chat.tpm:200000}") int chatTpm,
+                        @Value("${rag.model.chat.max-concurrency:16}") int chatConcurrency,
+                        //차례를 기다리는 최대 시간 / 최대 대기 수 (넘으면 바로 429)
+                        @Value("${rag.model.max-wait-ms:10000}") long maxWaitMs,
+                        @Value("${rag.model.max-queue:100}") int maxQueue,
+                        @Value("${rag.model.retry.max-attempts:4}") int maxAttempts,
+                        @Value("${rag.model.retry.base-delay-ms:500}") long baseDelayMs,
+                        @Value("${rag.model.retry.max-delay-ms:20000}") long maxDelayMs) {
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.maxQueue = maxQueue;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        lanes.put(Model.EMBEDDING, new Lane(embeddingRpm, embeddingTpm, embeddingConcurrency));
+        lanes.put(Model.CHAT, new Lane(chatRpm, chatTpm, chatConcurrency));
+
+        lanes.forEach((model, lane) -> {
+            String tag = model.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("rag.model.concurrency.limit", lane.concurrency, AdaptiveLimit::limit)
+                    .tag("model", tag).register(meterRegistry);
+            Gauge.builder("rag.model.concurrency.in.flight", lane.concurrency, AdaptiveLimit::inFlight)
+                    .tag("model", tag).register(meterRegistry);
+            Gauge.builder("rag.model.concurrency.waiting", lane.concurrency, AdaptiveLimit::waiting)
+                    .tag("model", tag).register(meterRegistry);
+            lane.rejected = Counter.builder("rag.model.requests").tag("model", tag).tag("result", "rejected")
+                    .register(meterRegistry);
+            lane.retried = Counter.builder("rag.model.requests").tag("model", tag).tag("result", "retried")
+                    .register(meterRegistry);
+            lane.rateLimited = Counter.builder("rag.model.requests").tag("model", tag).tag("result", "rate_limited")
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * 한도 안에서 모델 호출 (일시적 오류는 재시도)
+     *
+     * @param tokens 요청에 들어갈 토큰 수 추정치 (TPM 계산용)
+     */
+    public <T> T call(Model model, int tokens, Supplier<T> call) {
+        Lane lane = lanes.get(model);
+        for (int attempt = 1; ; attempt++) {
+            Permit permit = admit(model, tokens);
+            try {
+                T result = call.get();
+                permit.complete(null);
+                return result;
+            } catch (RuntimeException e) {
+                permit.complete(e);
+                boolean rateLimited = isRateLimited(e);
+                if (!rateLimited && !isTransient(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    if (rateLimited) {
+                        throw new ModelOverloadedException("모델 요청 한도를 초과했습니다: " + model, e);
+                    }
+                    throw e;
+                }
+                lane.retried.increment();
+                long delay = backoff(attempt);
+                log.warn("모델 호출 재시도 {}/{} ({}ms 후): {}, {}", attempt, maxAttempts, delay, model, e.getMessage());
+                sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * 호출 1건의 차례를 얻음 (스트리밍처럼 끝나는 시점이 따로 있는 경우, 끝나면 반드시 Permit.complete 또는 cancel)
+     * - 재시도는 하지 않음
+     */
+    public Permit admit(Model model, int tokens) {
+        Lane lane = lanes.get(model);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        try {
+            //속도 제한: 버킷이 다시 찰 때까지 기다려야 하는 시간이 남은 대기 시간보다 길면 바로 거절
+            long wait = lane.requests.reserve(1, maxWaitNanos);
+            if (wait < 0) {
+                throw reject(lane, model);
+            }
+            long tokenWait = lane.tokens.reserve(tokens, maxWaitNanos - wait);
+            if (tokenWait < 0) {
+                lane.requests.refund(1);
+                throw reject(lane, model);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(wait, tokenWait));
+
+            //동시 호출 수 제한 (차례가 안 오면 예약한 속도 한도는 돌려줌)
+            if (!lane.concurrency.acquire(deadline, maxQueue)) {
+                lane.requests.refund(1);
+                lane.tokens.refund(tokens);
+                throw reject(lane, model);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelOverloadedException("모델 요청 대기 중 중단되었습니다: " + model, e);
+        }
+        return new Permit(lane);
+    }
+
+    private ModelOverloadedException reject(Lane lane, Model model) {
+        lane.rejected.increment();
+        return new ModelOverloadedException("모델 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요: " + model);
+    }
+
+    //지터를 준 지수 백오프 (full jitter: 0 ~ base * 2^(n-1))
+    private long backoff(int attempt) {
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelOverloadedException("모델 재시도 대기 중 중단되었습니다", e);
+        }
+    }
+
+    //잠시 뒤 다시 하면 성공할 수 있는 실패인지 (학습 작업 이어서 재시도 판단용)
+    public static boolean isRetryable(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ModelOverloadedException) {
+                return true;
+            }
+        }
+        return isRateLimited(e) || isTransient(e);
+    }
+
+    //제공사 요청 한도 초과(429)인지
+    static boolean isRateLimited(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof HttpStatusCodeException http) {
+                if (http.getStatusCode().value() == 429) {
+                    return true;
+                }
+                continue;
+            }
+            //Spring AI 오류 처리기("429 - 응답 본문"), WebClient("429 Too Many Requests ...")는 상태 코드로 시작
+            //(본문 중간의 숫자는 보지 않음, 예: "4290 tokens")
+            String message = t.getMessage();
+            if (message != null && RATE_LIMITED_STATUS.matcher(message).lookingAt()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //다시 시도하면 성공할 수 있는 오류인지 (5xx, 연결/시간 초과)
+    static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientAiException || t instanceof ResourceAccessException) {
+                return true;
+            }
+            if (t instanceof HttpStatusCodeException http && http.getStatusCode().is5xxServerError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 호출 1건의 차례 (complete를 여러 번 불러도 한 번만 반납)
+     */
+    public static final class Permit {
+
+        private final Lane lane;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permit(Lane lane) {
+            this.lane = lane;
+        }
+
+        //호출 종료 (error: 실패 원인, 성공이면 null)
+        public void complete(Throwable error) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            boolean rateLimited = error != null && isRateLimited(error);
+            if (rateLimited) {
+                lane.rateLimited.increment();
+            }
+            lane.concurrency.release(error == null, rateLimited);
+        }
+
+        //호출자가 중간에 끊은 경우 (클라이언트 연결 종료, SSE 시간 초과): 제공사 상태와 무관하므로 한도는 그대로 두고 반납만
+        public void cancel() {
+            if (done.compareAndSet(false, true)) {
+                lane.concurrency.release(false, false);
+            }
+        }
+    }
+
+    //모델 하나의 한도 설정
+    private static final class Lane {
+
+        private final TokenBucket requests;
+        private final TokenBucket tokens;
+        private final AdaptiveLimit concurrency;
+        private Counter rejected;
+        private Counter retried;
+        private Counter rateLimited;
+
+        private Lane(int rpm, int tpm, int maxConcurrency) {
+            this.requests = new TokenBucket(rpm);
+            this.tokens = new TokenBucket(tpm);
+            this.concurrency = new AdaptiveLimit(maxConcurrency);
+        }
+    }
+
+    /**
+     * 분당 한도 토큰 버킷 (예약 방식: 먼저 차감하고, 모자란 만큼 기다림)
+     */
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(int perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.refillPerNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.available = capacity;
+        }
+
+        /**
+         * amount만큼 예약
+         *
+         * @return 기다려야 하는 시간(ns), maxWaitNanos를 넘으면 예약하지 않고 -1
+         */
+        synchronized long reserve(double amount, long maxWaitNanos) {
+            refill();
+            double needed = Math.min(amount, capacity); //버킷보다 큰 요청 하나는 가득 찼을 때 통과
+            double after = available - needed;
+            long wait = after >= 0 ? 0 : (long) Math.ceil(-after / refillPerNano);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            available = after;
+            return wait;
+        }
+
+        synchronized void refund(double amount) {
+            available = Math.min(capacity, available + amount);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * AIMD 동시 호출 한도
+     * - 성공: 한도 += 1/한도 (한도만큼 성공하면 1 증가), 제공사 429: 한도 /= 2, 그 외 실패/취소: 그대로
+     */
+    private static final class AdaptiveLimit {
+
+        private final int max;
+        private double limit;
+        private int inFlight;
+        private int waiting;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition released = lock.newCondition();
+
+        private AdaptiveLimit(int max) {
+            this.max = Math.max(1, max);
+            this.limit = this.max;
+        }
+
+        boolean acquire(long deadlineNanos, int maxQueue) throws InterruptedException {
+            lock.lock();
+            try {
+                if (inFlight < (int) limit) {
+                    inFlight++;
+                    return true;
+                }
+                if (waiting >= maxQueue) {
+                    return false;
+                }
+                waiting++;
+                try {
+                    while (inFlight >= (int) limit) {
+                        long remaining = deadlineNanos - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        released.awaitNanos(remaining);
+                    }
+                    inFlight++;
+                    return true;
+                } finally {
+                    waiting--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(boolean success, boolean rateLimited) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (rateLimited) {
+                    limit = Math.max(1, limit / 2);
+                } else if (success) {
+                    limit = Math.min(max, limit + 1 / limit);
+                }
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double limit() {
+            lock.lock();
+            try {
+                return limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int waiting() {
+            lock.lock();
+            try {
+                return waiting;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
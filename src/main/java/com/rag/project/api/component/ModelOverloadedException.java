@@ -0,0 +1,20 @@
+package com.rag.project.api.component;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 모델 요청 한도 초과 (대기열이 가득 찼거나, 제공사 요청 한도에 계속 걸림)
+ * - 클라이언트에는 429로 응답, 학습 작업은 실패 대신 다시 대기열에 올림
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ModelOverloadedException extends RuntimeException {
+
+    public ModelOverloadedException(String message) {
+        super(message);
+    }
+
+    public ModelOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,4 @@
+package com.rag.project.api.component;
+
+//백그라운드 S3 업로드가 끝났음을 알리는 이벤트 (업로드 중에 문서가 삭제됐으면 원본 정리)
+public record OriginalUploadedEvent(String s3Key) {}
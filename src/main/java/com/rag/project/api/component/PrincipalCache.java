@@ -0,0 +1,85 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.domain.MemberPrincipal;
+import com.rag.project.api.domain.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 인증된 회원 정보 캐시 (JWT subject(이메일) -> 회원 id, 권한)
+ * - 요청마다 members 테이블을 조회하지 않도록 함
+ * - 개수 + TTL 제한 (권한 변경은 TTL 안에 반영)
+ */
+@Component
+public class PrincipalCache {
+
+    private final MemberRepository memberRepository;
+    private final int maxEntries;
+    private final Duration ttl;
+
+    //접근 순서 LinkedHashMap = LRU
+    private final LinkedHashMap<String, CachedPrincipal> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(MemberRepository memberRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${rag.security.principal-cache.max-entries:10000}") int maxEntries,
+                          @Value("${rag.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.memberRepository = memberRepository;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > PrincipalCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("rag.security.principal.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("rag.security.principal.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * 이메일로 회원 정보 조회 (캐시 -> DB 순, 없는 회원은 empty)
+     */
+    public Optional<MemberPrincipal> get(String email) {
+        MemberPrincipal cached = getFromMemory(email);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+
+        Optional<MemberPrincipal> loaded = memberRepository.findByEmail(email)
+                .map(member -> new MemberPrincipal(member.getId(), member.getEmail(), member.getRole()));
+        loaded.ifPresent(principal -> put(email, principal));
+        return loaded;
+    }
+
+    private synchronized MemberPrincipal getFromMemory(String email) {
+        CachedPrincipal cached = entries.get(email);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(email);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    private synchronized void put(String email, MemberPrincipal principal) {
+        entries.put(email, new CachedPrincipal(principal, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private record CachedPrincipal(MemberPrincipal principal, long expiresAt) {}
+}
@@ -0,0 +1,203 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.domain.ChatHistory;
+import com.rag.project.api.domain.DocumentEmbedding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 토큰 예산 안에서 프롬프트의 [문서 내용]과 [이전 대화 기록]을 만듦
+ * - 전체 예산을 대화 기록/문서에 나눠 쓰고, 대화 기록이 덜 쓴 만큼은 문서에 넘겨줌
+ * - 대화 기록은 이전 대화 요약을 먼저 넣고, 남은 예산을 최근 대화에 씀
+ * - 문서 조각은 검색 순위대로 넣고, 예산이 모자라면 순위가 낮은 조각부터 자르거나 뺌
+ * - 같은 조각, 다른 조각에 포함된 조각, 앞뒤가 겹치는 같은 파일의 조각은 하나로 합침
+ */
+@Slf4j
+@Component
+public class PromptContextBuilder {
+
+    //남은 예산이 이보다 적으면 조각을 잘라 넣지 않고 버림
+    private static final int MIN_PARTIAL_CHUNK_TOKENS = 50;
+
+    private final TokenCounter tokenCounter;
+    private final int tokenBudget;
+    private final double historyShare;
+    private final int maxHistoryMessageTokens;
+    private final int minOverlapChars;
+
+    private final DistributionSummary contextTokens;
+    private final DistributionSummary historyTokens;
+    private final Counter droppedChunks;
+    private final Counter collapsedChunks;
+
+    public PromptContextBuilder(TokenCounter tokenCounter,
+                                MeterRegistry meterRegistry,
+                                //문서 내용 + 대화 기록에 쓸 최대 토큰 수
+                                @Value("${rag.prompt.token-budget:3000}") int tokenBudget,
+                                //그중 대화 기록 몫
+                                @Value("${rag.prompt.history-share:0.25}") double historyShare,
+                                //대화 메시지 하나의 최대 토큰 수 (긴 답변 잘라냄)
+                                @Value("${rag.prompt.max-history-message-tokens:300}") int maxHistoryMessageTokens,
+                                //앞뒤 겹침으로 판단할 최소 글자 수
+                                @Value("${rag.prompt.min-overlap-chars:40}") int minOverlapChars) {
+        this.tokenCounter = tokenCounter;
+        this.tokenBudget = tokenBudget;
+        this.historyShare = historyShare;
+        this.maxHistoryMessageTokens = maxHistoryMessageTokens;
+        this.minOverlapChars = minOverlapChars;
+
+        this.contextTokens = DistributionSummary.builder("rag.prompt.tokens").tag("part", "context")
+                .baseUnit("tokens").register(meterRegistry);
+        this.historyTokens = DistributionSummary.builder("rag.prompt.tokens").tag("part", "history")
+                .baseUnit("tokens").register(meterRegistry);
+        this.droppedChunks = Counter.builder("rag.prompt.chunks").tag("result", "dropped").register(meterRegistry);
+        this.collapsedChunks = Counter.builder("rag.prompt.chunks").tag("result", "collapsed").register(meterRegistry);
+    }
+
+    /**
+     * 프롬프트에 넣을 문자열과 토큰 수
+     */
+    public record PromptContext(String context, String history, int contextTokens, int historyTokens,
+                                int usedChunks, int droppedChunks, int collapsedChunks) {
+    }
+
+    /**
+     * @param rankedChunks 검색 순위순 문서 조각
+     * @param summary      이전 대화 요약 (없으면 빈 문자열)
+     * @param histories    과거순 최근 대화 기록
+     */
+    public PromptContext build(List<DocumentEmbedding> rankedChunks, String summary, List<ChatHistory> histories) {
+        //대화 기록: 요약(대화 기록 예산의 절반까지) -> 최신 메시지부터 예산 안에서 채움
+        int historyBudget = (int) (tokenBudget * historyShare);
+        Deque<String> historyLines = new ArrayDeque<>();
+        int usedHistoryTokens = 0;
+        String summaryLine = null;
+        if (summary != null && !summary.isBlank()) {
+            summaryLine = "이전 대화 요약: " + tokenCounter.truncate(summary, historyBudget / 2);
+            usedHistoryTokens += tokenCounter.count(summaryLine);
+        }
+        for (int i = histories.size() - 1; i >= 0; i--) {
+            ChatHistory h = histories.get(i);
+            String line = h.getRole() + ": " + tokenCounter.truncate(h.getContent(), maxHistoryMessageTokens);
+            int tokens = tokenCounter.count(line);
+            if (usedHistoryTokens + tokens > historyBudget) {
+                break;
+            }
+            historyLines.addFirst(line);
+            usedHistoryTokens += tokens;
+        }
+        if (summaryLine != null) {
+            historyLines.addFirst(summaryLine);
+        }
+
+        //문서 내용: 중복/겹침을 합친 뒤 순위대로 채움
+        List<Piece> pieces = collapse(rankedChunks);
+        int collapsed = rankedChunks.size() - pieces.size();
+        int contextBudget = tokenBudget - usedHistoryTokens;
+        List<String> contextParts = new ArrayList<>();
+        int usedContextTokens = 0;
+        int dropped = 0;
+        for (Piece piece : pieces) {
+            String part = String.format("[출처: %s]\n%s", piece.fileName(), piece.text());
+            int tokens = tokenCounter.count(part) + 2; //구분 줄바꿈
+            int remaining = contextBudget - usedContextTokens;
+            if (tokens <= remaining) {
+                contextParts.add(part);
+                usedContextTokens += tokens;
+            } else if (remaining >= MIN_PARTIAL_CHUNK_TOKENS) {
+                //예산에 걸친 조각은 앞부분만 넣음
+                String truncated = tokenCounter.truncate(part, remaining - 2);
+                contextParts.add(truncated);
+                usedContextTokens += tokenCounter.count(truncated) + 2;
+            } else {
+                dropped++;
+            }
+        }
+
+        PromptContext result = new PromptContext(
+                String.join("\n\n", contextParts),
+                String.join("\n", historyLines),
+                usedContextTokens,
+                usedHistoryTokens,
+                contextParts.size(),
+                dropped,
+                collapsed);
+
+        contextTokens.record(usedContextTokens);
+        historyTokens.record(usedHistoryTokens);
+        droppedChunks.increment(dropped);
+        collapsedChunks.increment(collapsed);
+        log.info("프롬프트 구성: 문서 {}토큰(조각 {}개, 제외 {}개, 병합 {}개), 대화 기록 {}토큰({}개)",
+                usedContextTokens, contextParts.size(), dropped, collapsed, usedHistoryTokens, historyLines.size());
+        return result;
+    }
+
+    /**
+     * 같은 내용의 조각을 하나로 합침 (순위는 먼저 나온 조각 기준)
+     * - 완전히 같거나 다른 조각에 포함된 조각은 버림
+     * - 같은 파일에서 앞뒤가 겹치는 조각은 이어 붙임
+     */
+    private List<Piece> collapse(List<DocumentEmbedding> rankedChunks) {
+        List<Piece> pieces = new ArrayList<>();
+        for (DocumentEmbedding chunk : rankedChunks) {
+            String text = chunk.getTextSegment() == null ? "" : chunk.getTextSegment().strip();
+            if (text.isEmpty()) {
+                continue;
+            }
+            String fileName = chunk.getFileName() != null ? chunk.getFileName() : "Unknown";
+            boolean merged = false;
+            for (int i = 0; i < pieces.size() && !merged; i++) {
+                Piece kept = pieces.get(i);
+                if (kept.text().contains(text)) {
+                    merged = true;
+                } else if (text.contains(kept.text())) {
+                    pieces.set(i, new Piece(kept.fileName(), text));
+                    merged = true;
+                } else if (Objects.equals(kept.fileName(), fileName)) {
+                    String joined = join(kept.text(), text);
+                    if (joined == null) {
+                        joined = join(text, kept.text());
+                    }
+                    if (joined != null) {
+                        pieces.set(i, new Piece(kept.fileName(), joined));
+                        merged = true;
+                    }
+                }
+            }
+            if (!merged) {
+                pieces.add(new Piece(fileName, text));
+            }
+        }
+        return pieces;
+    }
+
+    //first의 끝과 second의 앞이 minOverlapChars 이상 겹치면 이어 붙인 문자열, 아니면 null
+    private String join(String first, String second) {
+        if (second.length() < minOverlapChars) {
+            return null;
+        }
+        String head = second.substring(0, minOverlapChars);
+        int from = first.indexOf(head);
+        while (from >= 0) {
+            String tail = first.substring(from);
+            if (second.startsWith(tail)) {
+                return first + second.substring(tail.length());
+            }
+            from = first.indexOf(head, from + 1);
+        }
+        return null;
+    }
+
+    private record Piece(String fileName, String text) {
+    }
+}
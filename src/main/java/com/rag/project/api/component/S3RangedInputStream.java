@@ -0,0 +1,125 @@
+package com.rag.project.api.component;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * S3 객체를 일정 크기 구간(Range GET)으로 나눠 차례로 읽는 스트림
+ * - 큰 파일도 구간 하나 분량의 연결만 열어두고 앞에서부터 흘려가며 읽음
+ * - 읽는 도중 연결이 끊기면 처음부터가 아니라 끊긴 위치부터 다시 요청 (구간마다 1회)
+ */
+public class S3RangedInputStream extends InputStream {
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final long rangeSize;
+    private final long length;
+
+    private long position; //다음에 읽을 위치
+    private long rangeEnd; //현재 구간의 끝 (포함)
+    private ResponseInputStream<GetObjectResponse> current;
+    private boolean retried; //현재 구간에서 이미 다시 요청했는지
+
+    public S3RangedInputStream(S3Client s3Client, String bucket, String key, long rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("구간 크기는 0보다 커야 합니다: " + rangeSize);
+        }
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.rangeSize = rangeSize;
+        this.length = s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).contentLength();
+    }
+
+    //객체 전체 크기
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n == -1 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position < length) {
+            if (current == null) {
+                openRange();
+            }
+            int n;
+            try {
+                n = current.read(buffer, offset, (int) Math.min(len, rangeEnd - position + 1));
+            } catch (IOException e) {
+                //끊긴 위치부터 다시 요청
+                closeCurrent();
+                if (retried) {
+                    throw e;
+                }
+                retried = true;
+                continue;
+            }
+            if (n == -1) {
+                //구간을 다 읽었거나 응답이 일찍 끝남, 다음 요청은 현재 위치부터
+                closeCurrent();
+                if (position <= rangeEnd) {
+                    if (retried) {
+                        throw new IOException("S3 객체를 끝까지 읽지 못했습니다: " + key);
+                    }
+                    retried = true;
+                }
+                continue;
+            }
+            position += n;
+            if (position > rangeEnd) {
+                //구간을 다 받았으므로 연결은 재사용되도록 그냥 닫음
+                current.close();
+                current = null;
+            }
+            return n;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeCurrent();
+        position = length;
+    }
+
+    private void openRange() {
+        if (position > rangeEnd) {
+            retried = false; //새 구간
+        }
+        rangeEnd = Math.min(length, (position / rangeSize + 1) * rangeSize) - 1;
+        current = s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .range("bytes=" + position + "-" + rangeEnd)
+                .build());
+    }
+
+    private void closeCurrent() throws IOException {
+        if (current != null) {
+            //남은 구간을 다 받지 않고 연결을 끊음
+            current.abort();
+            current.close();
+            current = null;
+        }
+    }
+}
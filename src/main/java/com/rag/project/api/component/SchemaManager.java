@@ -0,0 +1,386 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.domain.ChunkingMode;
+import com.rag.project.api.domain.DistanceMetric;
+import com.rag.project.api.domain.DocumentEmbeddingRepositoryImpl;
+import com.rag.project.api.domain.VectorIndexType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPA(ddl-auto)로 표현할 수 없는 DB 객체를 서버 시작 후 백그라운드에서 만들고 유지
+ * - pgvector ANN 인덱스 (설정된 거리 계산 방식에 맞는 연산자 클래스로 생성)
+ * - document_embeddings.member_id 백필, 조각이 많은 회원의 부분(partial) 벡터 인덱스
+ * - 키워드 검색용 tsvector 식 GIN 인덱스
+ * - 대화방 도입 전 대화 기록의 conversation_id 백필과 (conversation_id, created_at) 인덱스
+ * - 청킹 방식 도입 전 학습 작업의 chunking_mode 백필
+ * - 여러 인스턴스가 동시에 시작해도 advisory lock을 잡은 한 곳에서만 실행
+ * - PostgreSQL이 아닌 DB(H2 등)에서는 아무것도 하지 않음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaManager {
+
+    //이 클래스가 관리하는 벡터 인덱스 이름 접두사 (설정이 바뀌면 접두사가 같은 이전 인덱스는 삭제)
+    private static final String VECTOR_INDEX_PREFIX = "document_embeddings_vec_";
+    //회원별 부분 인덱스 이름 접두사
+    private static final String MEMBER_INDEX_PREFIX = "document_embeddings_mvec_";
+    //백필 시 한 번에 갱신할 행 수 (긴 잠금 방지)
+    private static final int BACKFILL_BATCH_SIZE = 10000;
+    //키워드 검색 인덱스 이름 접두사 (뒤에 전문 검색 설정 이름이 붙음)
+    private static final String TEXT_INDEX_PREFIX = "document_embeddings_tsv_";
+    //대화방별 대화 기록 인덱스 이름 (ChatHistory 엔티티와 같은 이름)
+    private static final String CHAT_HISTORY_INDEX = "idx_chat_history_conversation_created";
+    //스키마 관리 advisory lock 이름 (hashtext로 잠금 키 계산)
+    private static final String MAINTENANCE_LOCK = "rag.schema-maintenance";
+    //회원별 부분 인덱스 생성 advisory lock 이름 접두사 (뒤에 회원 ID가 붙음)
+    private static final String MEMBER_INDEX_LOCK_PREFIX = "rag.member-index.";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor schemaExecutor;
+
+    @Value("${rag.vector-index.type:HNSW}")
+    private VectorIndexType indexType;
+
+    @Value("${rag.retrieval.metric:L2}")
+    private DistanceMetric metric;
+
+    //HNSW: 노드당 연결 수 / 생성 시 후보 수
+    @Value("${rag.vector-index.hnsw.m:16}")
+    private int hnswM;
+
+    @Value("${rag.vector-index.hnsw.ef-construction:64}")
+    private int hnswEfConstruction;
+
+    //IVFFlat: 클러스터 수 (권장: 행 수 / 1000)
+    @Value("${rag.vector-index.ivfflat.lists:100}")
+    private int ivfflatLists;
+
+    //조각 수가 이 값 이상인 회원은 전용 부분 인덱스를 만듦 (0이면 사용 안 함)
+    @Value("${rag.vector-index.per-member-min-rows:0}")
+    private int perMemberMinRows;
+
+    //전문 검색 설정 (한국어 사전이 기본 제공되지 않으므로 공백/문장부호 기준인 simple)
+    @Value("${rag.retrieval.text-search-config:simple}")
+    private String textSearchConfig;
+
+    //인덱스 생성과 백필은 테이블이 크면 오래 걸리므로 시작 이벤트 처리 스레드를 붙잡지 않음
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        schemaExecutor.execute(this::maintain);
+    }
+
+    public void maintain() {
+        try {
+            if (!isPostgres()) {
+                log.info("PostgreSQL이 아니므로 스키마 관리 생략");
+                return;
+            }
+            //잠금을 잡은 커넥션은 끝날 때까지 들고 있고, 실제 작업은 다른 커넥션에서 실행
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection, MAINTENANCE_LOCK)) {
+                    log.info("다른 인스턴스가 스키마 관리 중이므로 생략");
+                    return null;
+                }
+                try {
+                    backfillMemberId();
+                    ensureVectorIndex();
+                    ensureMemberIndexes();
+                    ensureTextSearch();
+                    backfillConversations();
+                    backfillChunkingMode();
+                    log.info("스키마 관리 완료");
+                } finally {
+                    unlock(connection, MAINTENANCE_LOCK);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 인덱스가 없어도 검색은 동작하므로 서버는 계속 띄움
+            log.error("스키마 관리 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    //세션 단위 advisory lock (기다리지 않음, 커넥션이 끊기면 자동 해제)
+    private boolean tryLock(Connection connection, String lock) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+            statement.setString(1, lock);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection, String lock) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+            statement.setString(1, lock);
+            statement.execute();
+        }
+    }
+
+    /**
+     * 설정과 일치하는 벡터 인덱스 하나만 남김
+     * - 설정(종류, 거리 방식)이 바뀌었으면 이전 인덱스 삭제 후 새로 생성
+     * - CONCURRENTLY 로 만들어서 생성 중에도 INSERT가 막히지 않음
+     */
+    private void ensureVectorIndex() {
+        String wanted = indexType == VectorIndexType.NONE
+                ? null
+                : "document_embeddings_vec" + indexSuffix();
+
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, i.indisvalid AS valid FROM pg_index i " +
+                        "JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "JOIN pg_class t ON t.oid = i.indrelid " +
+                        "WHERE t.relname = 'document_embeddings' AND c.relname LIKE ?",
+                VECTOR_INDEX_PREFIX + "%");
+
+        for (Map<String, Object> index : existing) {
+            String name = (String) index.get("name");
+            boolean valid = Boolean.TRUE.equals(index.get("valid"));
+            //설정과 다르거나, 이전 CONCURRENTLY 생성이 실패해서 INVALID로 남은 인덱스 삭제
+            if (!name.equals(wanted) || !valid) {
+                log.info("벡터 인덱스 삭제: {} (valid={})", name, valid);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+        }
+
+        if (wanted == null) {
+            return;
+        }
+
+        log.info("벡터 인덱스 확인/생성: {}", wanted);
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + wanted +
+                " ON document_embeddings USING " + indexMethod());
+    }
+
+    /**
+     * 키워드 검색용 식 인덱스 확인/생성
+     * - 컬럼을 추가하지 않고 text_segment의 tsvector 식에 GIN 인덱스를 만듦 (테이블을 다시 쓰지 않음)
+     * - CONCURRENTLY 로 만들어서 생성 중에도 INSERT가 막히지 않음
+     * - 설정(text-search-config)이 바뀌면 이름이 달라지므로 이전 인덱스는 삭제하고 새로 생성
+     */
+    private void ensureTextSearch() {
+        String wanted = TEXT_INDEX_PREFIX + textSearchConfig + "_idx";
+        String expression = DocumentEmbeddingRepositoryImpl.textVector(textSearchConfig, "text_segment");
+
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, i.indisvalid AS valid FROM pg_index i " +
+                        "JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "JOIN pg_class t ON t.oid = i.indrelid " +
+                        "WHERE t.relname = 'document_embeddings' AND c.relname LIKE ?",
+                TEXT_INDEX_PREFIX + "%");
+        for (Map<String, Object> index : existing) {
+            String name = (String) index.get("name");
+            boolean valid = Boolean.TRUE.equals(index.get("valid"));
+            if (!name.equals(wanted) || !valid) {
+                log.info("키워드 검색 인덱스 삭제: {} (valid={})", name, valid);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+        }
+
+        log.info("키워드 검색 인덱스 확인/생성: {}", wanted);
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + wanted +
+                " ON document_embeddings USING gin (" + expression + ")");
+    }
+
+    /**
+     * 대화방 도입 전에 저장된 대화 기록을 회원별 대화방 하나로 묶음
+     * - 대화방을 먼저 만들고, 기록은 나눠서 갱신 (긴 잠금 방지)
+     * - 인덱스는 테이블이 이미 큰 경우를 위해 CONCURRENTLY 로 생성
+     */
+    private void backfillConversations() {
+        List<Long> memberIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT member_id FROM chat_history WHERE conversation_id IS NULL AND member_id IS NOT NULL",
+                Long.class);
+        for (Long memberId : memberIds) {
+            Long conversationId = jdbcTemplate.queryForObject(
+                    "INSERT INTO conversations (member_id, title, created_at, updated_at) " +
+                            "SELECT ?, '이전 대화', coalesce(min(created_at), now()), coalesce(max(created_at), now()) " +
+                            "FROM chat_history WHERE member_id = ? AND conversation_id IS NULL " +
+                            "RETURNING conversation_id",
+                    Long.class, memberId, memberId);
+            int total = 0;
+            int updated;
+            do {
+                updated = jdbcTemplate.update(
+                        "UPDATE chat_history SET conversation_id = ? WHERE id IN (" +
+                                "SELECT id FROM chat_history WHERE member_id = ? AND conversation_id IS NULL LIMIT ?)",
+                        conversationId, memberId, BACKFILL_BATCH_SIZE);
+                total += updated;
+            } while (updated > 0);
+            log.info("대화 기록 대화방 백필: memberId={}, conversationId={}, {}건", memberId, conversationId, total);
+        }
+
+        if (Boolean.FALSE.equals(indexValid(CHAT_HISTORY_INDEX))) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + CHAT_HISTORY_INDEX);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + CHAT_HISTORY_INDEX +
+                " ON chat_history (conversation_id, created_at)");
+    }
+
+    /**
+     * member_id 컬럼 추가 전에 저장된 조각에 문서 소유자를 채움
+     * - 한 번에 전부 갱신하지 않고 나눠서 처리
+     */
+    private void backfillMemberId() {
+        int total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE document_embeddings e SET member_id = d.member_id FROM documents d " +
+                            "WHERE e.document_id = d.document_id AND e.embedding_id IN (" +
+                            "SELECT embedding_id FROM document_embeddings WHERE member_id IS NULL LIMIT ?)",
+                    BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            log.info("document_embeddings.member_id 백필 완료: {}건", total);
+        }
+    }
+
+    /**
+     * 청킹 방식 컬럼 추가 전에 등록된 학습 작업은 토큰 청킹으로 채움 (당시에는 토큰 청킹만 있었음)
+     */
+    private void backfillChunkingMode() {
+        int total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE ingestion_jobs SET chunking_mode = ? WHERE job_id IN (" +
+                            "SELECT job_id FROM ingestion_jobs WHERE chunking_mode IS NULL LIMIT ?)",
+                    ChunkingMode.TOKEN.name(), BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            log.info("ingestion_jobs.chunking_mode 백필 완료: {}건", total);
+        }
+    }
+
+    /**
+     * 조각이 많은 회원마다 부분 인덱스 확인/생성
+     * - 회원 조건과 벡터 정렬을 한 인덱스에서 처리해서, 전체 테이블이 커져도 회원별 검색 시간이 유지됨
+     */
+    private void ensureMemberIndexes() {
+        //설정이 바뀌어 이름이 달라진 이전 부분 인덱스 정리
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'document_embeddings' AND indexname LIKE ?",
+                String.class, MEMBER_INDEX_PREFIX + "%");
+        for (String name : existing) {
+            if (perMemberMinRows <= 0 || indexType == VectorIndexType.NONE || !name.endsWith(indexSuffix())) {
+                log.info("회원별 벡터 인덱스 삭제: {}", name);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+        }
+
+        if (perMemberMinRows <= 0 || indexType == VectorIndexType.NONE) {
+            return;
+        }
+        jdbcTemplate.queryForList(
+                        "SELECT member_id FROM document_embeddings WHERE member_id IS NOT NULL " +
+                                "GROUP BY member_id HAVING count(*) >= ?",
+                        Long.class, perMemberMinRows)
+                .forEach(this::createMemberIndex);
+    }
+
+    /**
+     * 학습이 끝난 회원의 조각 수가 기준을 넘었으면 부분 인덱스 생성 (학습 워커에서 호출)
+     * - 정상 인덱스가 이미 있으면 조각 수를 세지 않고 바로 끝냄
+     */
+    public void ensureMemberIndex(Long memberId) {
+        if (perMemberMinRows <= 0 || indexType == VectorIndexType.NONE || !isPostgres()) {
+            return;
+        }
+        if (Boolean.TRUE.equals(indexValid(memberIndexName(memberId)))) {
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM document_embeddings WHERE member_id = ?", Long.class, memberId);
+        if (rows != null && rows >= perMemberMinRows) {
+            createMemberIndex(memberId);
+        }
+    }
+
+    /**
+     * 회원별 부분 인덱스 생성
+     * - 학습 워커와 스키마 관리가 같은 회원의 인덱스를 동시에 만들지 않도록 회원별 advisory lock을 잡음
+     * - 이전 CONCURRENTLY 생성이 실패해서 INVALID로 남은 인덱스는 IF NOT EXISTS에 걸려 다시 만들어지지 않으므로 삭제 후 생성
+     */
+    private void createMemberIndex(Long memberId) {
+        String name = memberIndexName(memberId);
+        String lock = MEMBER_INDEX_LOCK_PREFIX + memberId;
+        //잠금을 잡은 커넥션은 끝날 때까지 들고 있고, 실제 작업은 다른 커넥션에서 실행
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!tryLock(connection, lock)) {
+                log.info("다른 곳에서 회원별 벡터 인덱스 생성 중이므로 생략: {}", name);
+                return null;
+            }
+            try {
+                Boolean valid = indexValid(name);
+                if (Boolean.TRUE.equals(valid)) {
+                    return null;
+                }
+                if (Boolean.FALSE.equals(valid)) {
+                    log.info("회원별 벡터 인덱스 삭제: {} (valid=false)", name);
+                    jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                }
+                log.info("회원별 벡터 인덱스 생성: {}", name);
+                jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name +
+                        " ON document_embeddings USING " + indexMethod() +
+                        " WHERE member_id = " + memberId);
+            } finally {
+                unlock(connection, lock);
+            }
+            return null;
+        });
+    }
+
+    private String memberIndexName(Long memberId) {
+        return MEMBER_INDEX_PREFIX + memberId + indexSuffix();
+    }
+
+    //인덱스가 INVALID면 false, 없으면 null
+    private Boolean indexValid(String name) {
+        return jdbcTemplate.query(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+                rs -> rs.next() ? rs.getBoolean(1) : null, name);
+    }
+
+    private String indexSuffix() {
+        return "_" + indexType.name().toLowerCase() + "_" + metric.name().toLowerCase() + "_idx";
+    }
+
+    //인덱스 종류 + 연산자 클래스 + 생성 옵션
+    private String indexMethod() {
+        return switch (indexType) {
+            case HNSW -> "hnsw (embedding_vector " + metric.getOperatorClass() + ") " +
+                    "WITH (m = " + hnswM + ", ef_construction = " + hnswEfConstruction + ")";
+            case IVFFLAT -> "ivfflat (embedding_vector " + metric.getOperatorClass() + ") " +
+                    "WITH (lists = " + ivfflatLists + ")";
+            case NONE -> throw new IllegalStateException("인덱스 종류가 NONE 입니다.");
+        };
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,183 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.domain.RetrievalOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 의미 기반 답변 캐시
+ * - 같은 회원이 비슷한 질문(질문 벡터의 코사인 거리 max-distance 이하)을 다시 하면 검색/모델 호출 없이 이전 답변 반환
+ * - 키: 회원 + 질문 벡터 + 검색 조건 + 회원 문서 세대(generation)
+ * - 답변이 대화 맥락에 따라 달라지므로 대화방의 첫 질문만 저장/조회 (호출하는 쪽에서 확인)
+ * - 문서가 바뀌면(업로드/삭제/학습 완료) 세대를 올려서 그 회원의 답변을 모두 버림
+ */
+@Slf4j
+@Component
+public class SemanticAnswerCache {
+
+    private final boolean enabled;
+    private final double maxDistance;
+    private final int maxEntriesPerMember;
+    private final Duration ttl;
+
+    //회원 -> 최근 답변 (앞쪽이 최신)
+    private final Map<Long, Deque<CachedAnswer>> entries = new ConcurrentHashMap<>();
+    //회원 -> 문서 세대 (문서가 바뀔 때마다 증가)
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer latencySaved;
+
+    public SemanticAnswerCache(MeterRegistry meterRegistry,
+                               @Value("${rag.answer-cache.enabled:false}") boolean enabled,
+                               //같은 질문으로 볼 최대 코사인 거리 (0: 완전히 같은 방향)
+                               @Value("${rag.answer-cache.max-distance:0.05}") double maxDistance,
+                               @Value("${rag.answer-cache.max-entries-per-member:100}") int maxEntriesPerMember,
+                               @Value("${rag.answer-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.maxDistance = maxDistance;
+        this.maxEntriesPerMember = maxEntriesPerMember;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+
+        this.hits = Counter.builder("rag.answer.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("rag.answer.cache.requests").tag("result", "miss").register(meterRegistry);
+        //캐시 적중으로 아낀 시간 (원래 답변 생성에 걸린 시간)
+        this.latencySaved = Timer.builder("rag.answer.cache.latency.saved").register(meterRegistry);
+        Gauge.builder("rag.answer.cache.hit.ratio", this, SemanticAnswerCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * 비슷한 질문의 답변 조회 (가장 가까운 것)
+     */
+    public Optional<String> get(Long memberId, float[] questionVector, RetrievalOptions options) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long generation = generation(memberId);
+        long now = System.currentTimeMillis();
+        float[] normalized = normalize(questionVector);
+
+        CachedAnswer best = null;
+        double bestDistance = Double.MAX_VALUE;
+        Deque<CachedAnswer> memberEntries = entries.get(memberId);
+        if (memberEntries != null) {
+            synchronized (memberEntries) {
+                Iterator<CachedAnswer> it = memberEntries.iterator();
+                while (it.hasNext()) {
+                    CachedAnswer cached = it.next();
+                    if (cached.generation() != generation || cached.expiresAt() < now) {
+                        it.remove();
+                        continue;
+                    }
+                    if (!Objects.equals(cached.options(), options)) {
+                        continue;
+                    }
+                    double distance = 1.0 - dot(cached.vector(), normalized);
+                    if (distance <= maxDistance && distance < bestDistance) {
+                        best = cached;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        if (best == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        latencySaved.record(best.latencyNanos(), TimeUnit.NANOSECONDS);
+        log.debug("답변 캐시 적중: memberId={}, distance={}", memberId, bestDistance);
+        return Optional.of(best.answer());
+    }
+
+    /**
+     * 현재 문서 세대 (답변 생성 전에 받아뒀다가 put에 넘김)
+     */
+    public long generation(Long memberId) {
+        return generations.getOrDefault(memberId, 0L);
+    }
+
+    /**
+     * 새로 만든 답변 저장
+     * - 답변을 만드는 동안 문서가 바뀌었으면(세대가 다르면) 저장하지 않음
+     *
+     * @param generation   답변 생성 전에 받은 세대
+     * @param latencyNanos 답변 생성에 걸린 시간 (적중 시 아낀 시간으로 기록)
+     */
+    public void put(Long memberId, long generation, float[] questionVector, RetrievalOptions options,
+                    String answer, long latencyNanos) {
+        if (!enabled || answer == null || answer.isBlank() || generation != generation(memberId)) {
+            return;
+        }
+        CachedAnswer cached = new CachedAnswer(normalize(questionVector), options, answer, generation,
+                latencyNanos, System.currentTimeMillis() + ttl.toMillis());
+        Deque<CachedAnswer> memberEntries = entries.computeIfAbsent(memberId, id -> new ArrayDeque<>());
+        synchronized (memberEntries) {
+            memberEntries.addFirst(cached);
+            while (memberEntries.size() > maxEntriesPerMember) {
+                memberEntries.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 회원의 답변을 모두 무효화
+     */
+    public void invalidate(Long memberId) {
+        generations.merge(memberId, 1L, Long::sum);
+        entries.remove(memberId);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    //단위 벡터로 변환 (내적 = 코사인 유사도)
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0; //모델이 바뀐 경우 (거리 1로 취급)
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record CachedAnswer(float[] vector, RetrievalOptions options, String answer, long generation,
+                                long latencyNanos, long expiresAt) {}
+}
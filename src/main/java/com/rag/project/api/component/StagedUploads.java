@@ -0,0 +1,192 @@
+package com.rag.project.api.component;
+
+import com.rag.project.api.util.HashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 원본을 로컬 임시 파일에 받아두고, S3에는 백그라운드로 멀티파트 업로드
+ * - 요청 스레드는 업로드 스트림을 한 번만 읽음 (임시 파일 저장 + 해시 계산)
+ * - 학습 워커는 S3 업로드가 끝나길 기다리지 않고 임시 파일에서 바로 추출 시작 (업로드와 학습이 동시에 진행)
+ * - 임시 파일은 요청, 업로드, 워커가 모두 다 쓰면 삭제
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StagedUploads {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final ApplicationEventPublisher eventPublisher;
+
+    //S3 키 -> 업로드 중인 원본 (업로드가 끝나면 빠짐)
+    private final Map<String, StagedFile> uploading = new ConcurrentHashMap<>();
+
+    @Value("${aws.s3.bucket}")
+    private String bucket;
+
+    /**
+     * 업로드 스트림을 임시 파일로 저장하면서 SHA-256 계산
+     * - 호출한 쪽이 다 쓰면 release 해야 함
+     */
+    public StagedFile stage(InputStream in) throws IOException {
+        Path path = Files.createTempFile("rag-upload-", ".tmp");
+        MessageDigest digest = HashUtil.sha256();
+        try (InputStream digesting = new DigestInputStream(in, digest)) {
+            Files.copy(digesting, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new StagedFile(path, HashUtil.toHex(digest.digest()));
+    }
+
+    /**
+     * 임시 파일을 S3에 비동기 업로드 시작 (큰 파일은 멀티파트 조각을 병렬 업로드)
+     * - 트랜잭션 안에서 호출하면 커밋된 뒤에 업로드 시작 (업로드 완료 시점에 문서/작업 행이 항상 보이도록)
+     * - 롤백되면 업로드하지 않고 임시 파일 몫만 반납
+     * - 워커가 바로 읽을 수 있도록 업로드 중 목록에는 즉시 등록
+     */
+    public void upload(StagedFile file, String key, String contentType) {
+        file.retain();
+        uploading.put(key, file);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            start(file, key, contentType);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    start(file, key, contentType);
+                } else {
+                    uploading.remove(key, file);
+                    file.uploaded.completeExceptionally(new IllegalStateException("트랜잭션이 롤백되어 업로드하지 않았습니다: " + key));
+                    file.release();
+                }
+            }
+        });
+    }
+
+    private void start(StagedFile file, String key, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+
+        log.info("S3에 파일 업로드 시작: {}", key);
+        s3AsyncClient.putObject(request, AsyncRequestBody.fromFile(file.path()))
+                .whenComplete((response, error) -> {
+                    uploading.remove(key, file);
+                    if (error != null) {
+                        log.error("S3 파일 업로드 실패: {}, {}", key, error.getMessage());
+                        file.uploaded.completeExceptionally(error);
+                    } else {
+                        log.info("S3에 파일 업로드 완료: {}", key);
+                        file.uploaded.complete(null);
+                        eventPublisher.publishEvent(new OriginalUploadedEvent(key));
+                    }
+                    file.release();
+                });
+    }
+
+    //해당 키를 업로드 중인지
+    public boolean isUploading(String key) {
+        return uploading.containsKey(key);
+    }
+
+    /**
+     * 아직 업로드 중인 원본의 임시 파일 (워커가 S3 대신 바로 읽음)
+     * - 이미 업로드가 끝났으면 비어 있음 (S3에서 읽으면 됨)
+     * - 받은 쪽이 다 쓰면 release 해야 함
+     */
+    public Optional<StagedFile> acquire(String key) {
+        StagedFile file = uploading.get(key);
+        return file != null && file.tryRetain() ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * 로컬에 받아둔 원본 (참조 수가 0이 되면 임시 파일 삭제)
+     */
+    public static final class StagedFile {
+
+        private final Path path;
+        private final String contentHash;
+        private final AtomicInteger refs = new AtomicInteger(1);
+        private final CompletableFuture<Void> uploaded = new CompletableFuture<>();
+
+        private StagedFile(Path path, String contentHash) {
+            this.path = path;
+            this.contentHash = contentHash;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        public String contentHash() {
+            return contentHash;
+        }
+
+        public InputStream open() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        //S3 업로드가 끝날 때까지 대기 (실패하면 원인 예외를 던짐)
+        public void awaitUploaded() {
+            try {
+                uploaded.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        public void release() {
+            if (refs.decrementAndGet() == 0) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("업로드 임시 파일 삭제 실패: {}, {}", path, e.getMessage());
+                }
+            }
+        }
+
+        private void retain() {
+            refs.incrementAndGet();
+        }
+
+        //이미 삭제된 파일이면 실패
+        private boolean tryRetain() {
+            int current;
+            do {
+                current = refs.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!refs.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
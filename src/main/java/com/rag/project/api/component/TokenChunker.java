@@ -0,0 +1,169 @@
+package com.rag.project.api.component;
+
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 토큰 기준 청커 (호출마다 TokenTextSplitter를 만들던 방식 대체)
+ * - 인코딩은 TokenCounter가 캐시한 것을 재사용, Document 객체로 감싸지 않음
+ * - 문자열 복사 대신 원문에서의 위치(start, end)를 반환, 필요할 때만 잘라서 씀
+ * - 분할 규칙은 기존과 같음: chunkSize 토큰까지 자르고, minChunkSizeChars 이후의 마지막 문장부호/줄바꿈에서 끊음
+ */
+@Component
+public class TokenChunker {
+
+    //한 토큰이 차지하는 최대 글자 수 추정치 (청크 하나를 위해 미리 인코딩할 범위)
+    private static final int MAX_CHARS_PER_TOKEN = 8;
+
+    private final Encoding encoding;
+    private final int chunkSize;
+    private final int minChunkSizeChars;
+    private final int minChunkLengthToEmbed;
+
+    public TokenChunker(TokenCounter tokenCounter,
+                        //800토큰 = 한글 400~500자 / 영문 3000자
+                        @Value("${rag.chunking.chunk-size:800}") int chunkSize,
+                        //이 글자 수 이후에 나오는 문장부호에서만 자름 (너무 짧은 청크 방지)
+                        @Value("${rag.chunking.min-chunk-size-chars:100}") int minChunkSizeChars,
+                        //이 길이 이하의 청크는 버림
+                        @Value("${rag.chunking.min-chunk-length-to-embed:5}") int minChunkLengthToEmbed) {
+        this.encoding = tokenCounter.encoding();
+        this.chunkSize = chunkSize;
+        this.minChunkSizeChars = minChunkSizeChars;
+        this.minChunkLengthToEmbed = minChunkLengthToEmbed;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public int minChunkLengthToEmbed() {
+        return minChunkLengthToEmbed;
+    }
+
+    /**
+     * 원문 안에서 청크의 위치 [start, end)
+     */
+    public record Span(int start, int end) {
+
+        public int length() {
+            return end - start;
+        }
+
+        public String text(CharSequence source) {
+            return source.subSequence(start, end).toString();
+        }
+    }
+
+    /**
+     * 텍스트를 청크 위치 목록으로 분할 (앞뒤 공백은 제외된 위치)
+     */
+    public List<Span> split(CharSequence text) {
+        return split(text, chunkSize);
+    }
+
+    /**
+     * 청크 하나의 토큰 수를 maxTokens로 제한해서 분할 (제목 등을 앞에 붙일 청크용)
+     */
+    public List<Span> split(CharSequence text, int maxTokens) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("청크 토큰 수는 0보다 커야 합니다: " + maxTokens);
+        }
+        List<Span> spans = new ArrayList<>();
+        if (text == null) {
+            return spans;
+        }
+        int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            int end = tokenLimit(text, pos, maxTokens);
+
+            //공백뿐인 구간은 건너뜀
+            int start = skipWhitespace(text, pos, end);
+            if (start == end) {
+                pos = end;
+                continue;
+            }
+
+            //문장이 끝나는 곳에서 끊기
+            int lastBreak = lastBreak(text, pos, end);
+            if (lastBreak != -1 && lastBreak - pos > minChunkSizeChars) {
+                end = lastBreak + 1;
+            }
+
+            int trimmedEnd = trimEnd(text, start, end);
+            if (trimmedEnd - start > minChunkLengthToEmbed) {
+                spans.add(new Span(start, trimmedEnd));
+            }
+            pos = end;
+        }
+        return spans;
+    }
+
+    /**
+     * 텍스트를 청크 문자열 목록으로 분할
+     */
+    public List<String> chunk(CharSequence text) {
+        return chunk(text, chunkSize);
+    }
+
+    /**
+     * 청크 하나의 토큰 수를 maxTokens로 제한해서 청크 문자열 목록으로 분할
+     */
+    public List<String> chunk(CharSequence text, int maxTokens) {
+        List<Span> spans = split(text, maxTokens);
+        List<String> chunks = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            chunks.add(span.text(text));
+        }
+        return chunks;
+    }
+
+    //pos부터 maxTokens 토큰이 끝나는 위치
+    private int tokenLimit(CharSequence text, int pos, int maxTokens) {
+        int lookaheadEnd = (int) Math.min(text.length(), pos + (long) maxTokens * MAX_CHARS_PER_TOKEN);
+        String lookahead = text.subSequence(pos, lookaheadEnd).toString();
+
+        EncodingResult result = encoding.encodeOrdinary(lookahead, maxTokens);
+        if (!result.isTruncated()) {
+            return lookaheadEnd;
+        }
+        //토큰 바이트 수 -> 글자 수 (글자 중간에서 끊기면 그 글자는 다음 청크로)
+        int bytes = encoding.decodeBytes(result.getTokens()).length;
+        int chars = TokenCounter.charsWithinBytes(lookahead, bytes);
+        if (chars == 0) {
+            chars = Character.charCount(lookahead.codePointAt(0));
+        }
+        return pos + chars;
+    }
+
+    private static int lastBreak(CharSequence text, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            char c = text.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //String.trim()과 같은 기준 (공백 및 제어 문자)
+    private static int skipWhitespace(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(CharSequence text, int from, int to) {
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
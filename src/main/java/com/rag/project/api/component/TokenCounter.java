@@ -0,0 +1,61 @@
+package com.rag.project.api.component;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 모델 기준 토큰 수 계산기
+ * - 인코딩 테이블 로딩 비용이 크므로 한 번만 만들어서 재사용
+ */
+@Component
+public class TokenCounter {
+
+    //text-embedding-3-small, gpt-4o-mini 계열이 사용하는 인코딩
+    private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    //텍스트의 토큰 수
+    public int count(String text){
+        if(text == null || text.isEmpty()){
+            return 0;
+        }
+        return encoding.countTokens(text);
+    }
+
+    //앞에서부터 maxTokens 토큰까지만 남김
+    //토큰 경계가 한글 같은 여러 바이트 글자 중간이면 그 글자는 뺌 (깨진 문자 방지)
+    public String truncate(String text, int maxTokens){
+        if(text == null || text.isEmpty() || maxTokens <= 0){
+            return "";
+        }
+        EncodingResult result = encoding.encodeOrdinary(text, maxTokens);
+        if(!result.isTruncated()){
+            return text;
+        }
+        int bytes = encoding.decodeBytes(result.getTokens()).length;
+        return text.substring(0, charsWithinBytes(text, bytes));
+    }
+
+    //UTF-8로 bytes 바이트 안에 온전히 들어가는 앞부분의 글자(char) 수
+    static int charsWithinBytes(String text, int bytes){
+        int used = 0;
+        int i = 0;
+        while(i < text.length()){
+            int codePoint = text.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if(used + size > bytes){
+                break;
+            }
+            used += size;
+            i += Character.charCount(codePoint);
+        }
+        return i;
+    }
+
+    //청커 등 같은 인코딩을 쓰는 컴포넌트와 공유
+    Encoding encoding(){
+        return encoding;
+    }
+}
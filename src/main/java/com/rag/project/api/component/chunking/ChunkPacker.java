@@ -0,0 +1,87 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+
+import java.util.function.Consumer;
+
+/**
+ * 문단/문장 같은 단위를 토큰 예산 안에서 하나의 청크로 모음
+ * - 단위 중간에서 자르지 않음 (단위 하나가 예산보다 크면 그 단위만 토큰 기준으로 자름)
+ * - prefix(소속 제목)가 있으면 각 청크 앞에 붙여서 검색 시 문맥 유지
+ * - 예산은 chunkSize에서 제목과 구분자 토큰을 뺀 값이라, 제목을 붙인 청크도 chunkSize를 넘지 않음
+ */
+class ChunkPacker {
+
+    private final TokenChunker tokenChunker;
+    private final TokenCounter tokenCounter;
+    private final Consumer<String> chunkSink;
+    private final String separator; //단위 사이 구분자
+    private final int separatorTokens;
+    private final StringBuilder current = new StringBuilder();
+    private int currentTokens;
+    private String prefix;
+    private int prefixTokens;
+    private int emitted;
+
+    ChunkPacker(TokenChunker tokenChunker, TokenCounter tokenCounter, Consumer<String> chunkSink, String separator) {
+        this.tokenChunker = tokenChunker;
+        this.tokenCounter = tokenCounter;
+        this.chunkSink = chunkSink;
+        this.separator = separator;
+        this.separatorTokens = tokenCounter.count(separator);
+    }
+
+    //이후 청크 앞에 붙일 제목 (null: 없음)
+    void setPrefix(String prefix) {
+        this.prefix = prefix == null || prefix.isBlank() ? null : prefix.strip();
+        //제목 + 줄바꿈
+        this.prefixTokens = this.prefix == null ? 0 : tokenCounter.count(this.prefix + "\n");
+    }
+
+    void add(String unit) {
+        String text = unit == null ? "" : unit.strip();
+        if (text.isEmpty()) {
+            return;
+        }
+        int budget = Math.max(1, tokenChunker.chunkSize() - prefixTokens);
+        int tokens = tokenCounter.count(text);
+
+        //단위 하나가 예산을 넘으면 따로 토큰 기준 분할 (제목을 붙일 자리를 남기고 자름)
+        if (tokens > budget) {
+            flush();
+            tokenChunker.chunk(text, budget).forEach(this::emit);
+            return;
+        }
+        if (!current.isEmpty() && currentTokens + separatorTokens + tokens > budget) {
+            flush();
+        }
+        if (!current.isEmpty()) {
+            current.append(separator);
+            currentTokens += separatorTokens;
+        }
+        current.append(text);
+        currentTokens += tokens;
+    }
+
+    void flush() {
+        if (current.isEmpty()) {
+            return;
+        }
+        emit(current.toString());
+        current.setLength(0);
+        currentTokens = 0;
+    }
+
+    int emitted() {
+        return emitted;
+    }
+
+    private void emit(String body) {
+        String chunk = prefix == null || body.startsWith(prefix) ? body : prefix + "\n" + body;
+        if (chunk.length() > tokenChunker.minChunkLengthToEmbed()) {
+            chunkSink.accept(chunk);
+            emitted++;
+        }
+    }
+}
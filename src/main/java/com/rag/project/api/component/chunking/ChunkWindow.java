@@ -0,0 +1,70 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.TokenChunker;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 추출된 텍스트를 조금씩 받아서 청크로 내보내는 창
+ * - 버퍼가 windowChars를 넘으면 분할하고, 마지막(덜 찬) 조각만 남긴 채 나머지를 바로 내보냄
+ * - 메모리에는 파일 전체가 아니라 창 크기만큼만 유지
+ * - 버퍼를 통째로 복사하지 않고 청크 위치로 잘라냄
+ */
+class ChunkWindow implements ChunkingStrategy.Session {
+
+    private final TokenChunker chunker;
+    private final Consumer<String> chunkSink;
+    private final int windowChars;
+    private final StringBuilder buffer = new StringBuilder();
+    private int emitted;
+
+    ChunkWindow(TokenChunker chunker, Consumer<String> chunkSink, int windowChars) {
+        this.chunker = chunker;
+        this.chunkSink = chunkSink;
+        this.windowChars = windowChars;
+    }
+
+    @Override
+    public void accept(TextBlock block) {
+        append(block.text());
+    }
+
+    void append(String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        buffer.append(text);
+        if (buffer.length() >= windowChars) {
+            flush(false);
+        }
+    }
+
+    /**
+     * 남은 텍스트를 모두 내보내고, 지금까지 내보낸 청크 수를 반환
+     */
+    @Override
+    public int finish() {
+        flush(true);
+        return emitted;
+    }
+
+    private void flush(boolean last) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<TokenChunker.Span> spans = chunker.split(buffer);
+
+        //마지막 조각은 다음 텍스트와 이어질 수 있으므로 버퍼에 남김
+        int emitCount = last || spans.isEmpty() ? spans.size() : spans.size() - 1;
+        for (int i = 0; i < emitCount; i++) {
+            chunkSink.accept(spans.get(i).text(buffer));
+            emitted++;
+        }
+        if (last || spans.isEmpty()) {
+            buffer.setLength(0);
+        } else {
+            buffer.delete(0, spans.get(spans.size() - 1).start());
+        }
+    }
+}
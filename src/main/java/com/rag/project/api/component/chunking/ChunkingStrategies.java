@@ -0,0 +1,55 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.domain.ChunkingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 등록된 청킹 방식 모음
+ * - 업로드 시 요청한 모드를 실제 모드로 확정하고, 워커는 저장된 모드로 구현체를 찾음
+ */
+@Component
+public class ChunkingStrategies {
+
+    private final Map<ChunkingMode, ChunkingStrategy> strategies = new EnumMap<>(ChunkingMode.class);
+    private final ChunkingMode defaultMode;
+
+    public ChunkingStrategies(List<ChunkingStrategy> strategies,
+                              //업로드 시 지정하지 않았을 때 사용할 모드
+                              @Value("${rag.chunking.default-mode:TOKEN}") ChunkingMode defaultMode) {
+        strategies.forEach(strategy -> this.strategies.put(strategy.mode(), strategy));
+        this.defaultMode = defaultMode;
+    }
+
+    /**
+     * 요청한 모드(null: 기본값, AUTO: 파일 형식별)를 실제 사용할 모드로 확정
+     */
+    public ChunkingMode resolve(ChunkingMode requested, FileFormat format) {
+        ChunkingMode mode = requested != null ? requested : defaultMode;
+        if (mode == ChunkingMode.AUTO) {
+            mode = switch (format) {
+                case PDF -> ChunkingMode.PAGE;
+                case DOCX -> ChunkingMode.PARAGRAPH;
+                case PPTX -> ChunkingMode.SLIDE;
+                case TEXT -> ChunkingMode.SENTENCE;
+            };
+        }
+        ChunkingStrategy strategy = strategies.get(mode);
+        if (strategy == null || !strategy.supports(format)) {
+            throw new IllegalArgumentException("이 파일 형식에는 사용할 수 없는 청킹 방식입니다: " + mode);
+        }
+        return mode;
+    }
+
+    /**
+     * 저장된 모드의 구현체 (모드가 없던 이전 작업은 TOKEN)
+     */
+    public ChunkingStrategy get(ChunkingMode mode) {
+        return strategies.get(mode != null ? mode : ChunkingMode.TOKEN);
+    }
+}
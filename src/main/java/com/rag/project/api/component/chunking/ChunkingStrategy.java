@@ -0,0 +1,31 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.domain.ChunkingMode;
+
+import java.util.function.Consumer;
+
+/**
+ * 청킹 방식 SPI
+ * - 구현체를 @Component로 등록하면 ChunkingStrategies가 모드별로 찾아 씀
+ * - 문서 하나마다 open()으로 세션을 만들고, 추출된 블록을 순서대로 넣은 뒤 finish()
+ */
+public interface ChunkingStrategy {
+
+    ChunkingMode mode();
+
+    //이 형식의 파일에 쓸 수 있는지
+    boolean supports(FileFormat format);
+
+    Session open(Consumer<String> chunkSink);
+
+    interface Session {
+
+        void accept(TextBlock block);
+
+        /**
+         * 남은 텍스트를 모두 내보내고, 내보낸 청크 수를 반환
+         */
+        int finish();
+    }
+}
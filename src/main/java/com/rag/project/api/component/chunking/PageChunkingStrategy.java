@@ -0,0 +1,73 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChunkingMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * PDF 페이지/제목 단위 청킹
+ * - 청크가 페이지 경계를 넘지 않음
+ * - 페이지 안에서는 번호 붙은 제목 줄(1.2, 제3장, IV. 등)에서 새 청크 시작
+ * - 긴 절이 여러 청크로 나뉘면 뒤 청크에도 제목을 붙임
+ */
+@Component
+@RequiredArgsConstructor
+public class PageChunkingStrategy implements ChunkingStrategy {
+
+    //번호로 시작하는 짧은 줄 = 제목으로 봄
+    private static final Pattern HEADING = Pattern.compile(
+            "^(\\d+(\\.\\d+)*\\.?|제\\s*\\d+\\s*[편장절관조]|[IVX]+\\.|Chapter\\s+\\d+|[가-하]\\.)\\s+\\S.*$");
+    private static final int MAX_HEADING_CHARS = 80;
+
+    private final TokenChunker tokenChunker;
+    private final TokenCounter tokenCounter;
+
+    @Override
+    public ChunkingMode mode() {
+        return ChunkingMode.PAGE;
+    }
+
+    @Override
+    public boolean supports(FileFormat format) {
+        return format == FileFormat.PDF;
+    }
+
+    @Override
+    public Session open(Consumer<String> chunkSink) {
+        ChunkPacker packer = new ChunkPacker(tokenChunker, tokenCounter, chunkSink, "\n");
+        return new Session() {
+            @Override
+            public void accept(TextBlock block) {
+                for (String line : block.text().split("\n")) {
+                    if (isHeading(line)) {
+                        packer.flush();
+                        packer.setPrefix(line);
+                    }
+                    packer.add(line);
+                }
+                //페이지 경계
+                packer.flush();
+            }
+
+            @Override
+            public int finish() {
+                packer.flush();
+                return packer.emitted();
+            }
+        };
+    }
+
+    static boolean isHeading(String line) {
+        String text = line.strip();
+        if (text.isEmpty() || text.length() > MAX_HEADING_CHARS || text.endsWith(".") || text.endsWith(",")) {
+            return false;
+        }
+        return HEADING.matcher(text).matches();
+    }
+}
@@ -0,0 +1,62 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChunkingMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Word 문단 스타일 기준 청킹
+ * - 제목 스타일 문단에서 새 청크 시작, 같은 제목 아래 문단은 토큰 예산 안에서 모음
+ * - 표는 잘리지 않도록 따로 한 청크
+ * - 모든 청크 앞에 소속 제목을 붙임
+ */
+@Component
+@RequiredArgsConstructor
+public class ParagraphChunkingStrategy implements ChunkingStrategy {
+
+    private final TokenChunker tokenChunker;
+    private final TokenCounter tokenCounter;
+
+    @Override
+    public ChunkingMode mode() {
+        return ChunkingMode.PARAGRAPH;
+    }
+
+    @Override
+    public boolean supports(FileFormat format) {
+        return format == FileFormat.DOCX;
+    }
+
+    @Override
+    public Session open(Consumer<String> chunkSink) {
+        ChunkPacker packer = new ChunkPacker(tokenChunker, tokenCounter, chunkSink, "\n");
+        return new Session() {
+            @Override
+            public void accept(TextBlock block) {
+                switch (block.type()) {
+                    case HEADING -> {
+                        packer.flush();
+                        packer.setPrefix(block.text());
+                    }
+                    case TABLE -> {
+                        packer.flush();
+                        packer.add(block.text());
+                        packer.flush();
+                    }
+                    default -> packer.add(block.text());
+                }
+            }
+
+            @Override
+            public int finish() {
+                packer.flush();
+                return packer.emitted();
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChunkingMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.BreakIterator;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 문장 단위 청킹
+ * - 문장 중간에서 자르지 않고, 토큰 예산 안에서 문장을 모아 한 청크로 만듦
+ * - 제목/표/슬라이드 블록은 경계로 취급
+ */
+@Component
+@RequiredArgsConstructor
+public class SentenceChunkingStrategy implements ChunkingStrategy {
+
+    private final TokenChunker tokenChunker;
+    private final TokenCounter tokenCounter;
+
+    //문장 분리 전에 모아둘 최대 글자 수 (넘으면 완성된 문장까지만 먼저 처리)
+    @Value("${rag.extraction.window-chars:32000}")
+    private int windowChars;
+
+    @Override
+    public ChunkingMode mode() {
+        return ChunkingMode.SENTENCE;
+    }
+
+    @Override
+    public boolean supports(FileFormat format) {
+        return true;
+    }
+
+    @Override
+    public Session open(Consumer<String> chunkSink) {
+        ChunkPacker packer = new ChunkPacker(tokenChunker, tokenCounter, chunkSink, " ");
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.KOREAN);
+        StringBuilder pending = new StringBuilder();
+
+        return new Session() {
+            @Override
+            public void accept(TextBlock block) {
+                switch (block.type()) {
+                    case HEADING, TABLE, SLIDE -> {
+                        packSentences(true);
+                        packer.flush();
+                        pending.append(block.text());
+                        packSentences(true);
+                        packer.flush();
+                    }
+                    default -> {
+                        pending.append(block.text());
+                        if (pending.length() >= windowChars) {
+                            packSentences(false);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public int finish() {
+                packSentences(true);
+                packer.flush();
+                return packer.emitted();
+            }
+
+            //모아둔 텍스트를 문장으로 나눠 packer에 넣음 (all=false면 마지막 문장은 다음 텍스트와 이어질 수 있어 남김)
+            private void packSentences(boolean all) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                String text = pending.toString();
+                sentences.setText(text);
+                int start = sentences.first();
+                int consumed = 0;
+                for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+                    if (!all && end == text.length()) {
+                        break;
+                    }
+                    packer.add(text.substring(start, end));
+                    consumed = end;
+                }
+                pending.delete(0, consumed);
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChunkingMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * PPT 슬라이드 단위 청킹
+ * - 슬라이드 하나 = 청크 하나 (토큰 예산을 넘는 슬라이드만 나눔)
+ */
+@Component
+@RequiredArgsConstructor
+public class SlideChunkingStrategy implements ChunkingStrategy {
+
+    private final TokenChunker tokenChunker;
+    private final TokenCounter tokenCounter;
+
+    @Override
+    public ChunkingMode mode() {
+        return ChunkingMode.SLIDE;
+    }
+
+    @Override
+    public boolean supports(FileFormat format) {
+        return format == FileFormat.PPTX;
+    }
+
+    @Override
+    public Session open(Consumer<String> chunkSink) {
+        ChunkPacker packer = new ChunkPacker(tokenChunker, tokenCounter, chunkSink, "\n");
+        return new Session() {
+            @Override
+            public void accept(TextBlock block) {
+                packer.add(block.text());
+                packer.flush();
+            }
+
+            @Override
+            public int finish() {
+                packer.flush();
+                return packer.emitted();
+            }
+        };
+    }
+}
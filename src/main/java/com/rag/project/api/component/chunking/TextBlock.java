@@ -0,0 +1,20 @@
+package com.rag.project.api.component.chunking;
+
+/**
+ * 추출 단계에서 나오는 텍스트 조각과 그 구조 정보
+ */
+public record TextBlock(Type type, String text) {
+
+    public enum Type {
+        PAGE,       //PDF 한 페이지
+        HEADING,    //Word 제목 스타일 문단
+        PARAGRAPH,  //Word 본문 문단
+        TABLE,      //Word 표
+        SLIDE,      //PPT 슬라이드 하나
+        LINE        //텍스트 파일 한 줄
+    }
+
+    public TextBlock withText(String text) {
+        return new TextBlock(type, text);
+    }
+}
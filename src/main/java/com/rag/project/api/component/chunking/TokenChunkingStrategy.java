@@ -0,0 +1,40 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.domain.ChunkingMode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * 고정 토큰 수 청킹 (기존 방식)
+ * - 구조와 상관없이 이어 붙인 텍스트를 chunkSize 토큰씩 자름
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenChunkingStrategy implements ChunkingStrategy {
+
+    private final TokenChunker tokenChunker;
+
+    //한 번에 청킹할 텍스트 크기 (글자 수)
+    @Value("${rag.extraction.window-chars:32000}")
+    private int windowChars;
+
+    @Override
+    public ChunkingMode mode() {
+        return ChunkingMode.TOKEN;
+    }
+
+    @Override
+    public boolean supports(FileFormat format) {
+        return true;
+    }
+
+    @Override
+    public Session open(Consumer<String> chunkSink) {
+        return new ChunkWindow(tokenChunker, chunkSink, windowChars);
+    }
+}
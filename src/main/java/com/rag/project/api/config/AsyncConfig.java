@@ -0,0 +1,102 @@
+package com.rag.project.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class AsyncConfig {
+
+    //동시에 학습을 처리할 워커 수
+    @Value("${rag.ingestion.workers:2}")
+    private int ingestionWorkers;
+
+    //대기열 크기 (가득 차면 DB에 QUEUED 상태로 남겨두고 다음 스윕 때 다시 시도)
+    @Value("${rag.ingestion.queue-capacity:100}")
+    private int ingestionQueueCapacity;
+
+    //대화 요약 워커 수 / 대기열 크기 (가득 차면 다음 대화 때 다시 시도)
+    @Value("${rag.chat.summary.workers:1}")
+    private int summaryWorkers;
+
+    @Value("${rag.chat.summary.queue-capacity:100}")
+    private int summaryQueueCapacity;
+
+    //가상 스레드 모드 (Spring Boot 설정, 켜면 Tomcat 요청 처리도 가상 스레드)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    //PDF 페이지 구간을 나눠서 추출할 스레드 수 (0: CPU 코어 수)
+    @Value("${rag.extraction.pdf-parallelism:0}")
+    private int pdfParallelism;
+
+    /**
+     * 문서 학습(추출 -> 청킹 -> 임베딩) 전용 워커 풀
+     * - 요청 스레드(Tomcat)와 분리해서 큰 파일이 요청 스레드를 붙잡지 않도록 함
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ingestionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ingestionWorkers);
+        executor.setMaxPoolSize(ingestionWorkers);
+        executor.setQueueCapacity(ingestionQueueCapacity);
+        executor.setThreadNamePrefix("ingest-");
+        if (virtualThreads) {
+            //S3 다운로드/모델 호출/JDBC 대기 중에 플랫폼 스레드를 붙잡지 않음 (동시 작업 수는 그대로 workers)
+            executor.setThreadFactory(Thread.ofVirtual().name("ingest-", 0).factory());
+        }
+        //작업 상태가 DB에 남아 있으므로 종료 시 기다리지 않음 (재시작 후 이어서 처리)
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 대화 요약(모델 호출) 전용 워커 풀
+     * - 채팅 응답과 분리해서 요약이 늦어져도 답변 속도에 영향 없음
+     */
+    @Bean
+    public ThreadPoolTaskExecutor summaryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(summaryWorkers);
+        executor.setMaxPoolSize(summaryWorkers);
+        executor.setQueueCapacity(summaryQueueCapacity);
+        executor.setThreadNamePrefix("summary-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("summary-", 0).factory());
+        }
+        //요약은 다음 대화 때 다시 만들 수 있으므로 종료 시 기다리지 않음
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 서버 시작 후 스키마 관리(인덱스 생성, 백필) 전용 스레드
+     * - 큰 테이블의 인덱스 생성이 서버 시작(ApplicationReadyEvent 처리)을 붙잡지 않도록 분리
+     */
+    @Bean
+    public ThreadPoolTaskExecutor schemaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("schema-");
+        //중단된 인덱스 생성은 다음 시작 때 정리 후 다시 만들므로 종료 시 기다리지 않음
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 큰 PDF의 페이지 구간별 텍스트 추출용 fork-join 풀 (CPU 작업)
+     * - 여러 학습 작업이 같은 풀을 나눠 씀
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool pdfExtractionPool() {
+        int parallelism = pdfParallelism > 0 ? pdfParallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
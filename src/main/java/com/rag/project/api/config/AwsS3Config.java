@@ -5,8 +5,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
 
 
 
@@ -22,6 +29,22 @@ public class AwsS3Config {
     @Value("${spring.cloud.aws.region.static}")
     private String region;
 
+    //로컬 S3 에뮬레이터(MinIO, LocalStack 등) 주소, 비어 있으면 AWS S3
+    @Value("${spring.cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
+    //에뮬레이터는 보통 path-style 주소만 지원
+    @Value("${spring.cloud.aws.s3.path-style-access-enabled:false}")
+    private boolean pathStyleAccess;
+
+    //멀티파트 한 조각 크기 (이보다 큰 파일은 조각으로 나눠 병렬 업로드, S3 최소 5MB)
+    @Value("${rag.s3.upload.part-size-mb:8}")
+    private long partSizeMb;
+
+    //S3 동시 요청 수 (멀티파트 조각 병렬 업로드 수의 상한)
+    @Value("${rag.s3.upload.max-concurrency:16}")
+    private int uploadConcurrency;
+
     @Bean
     public S3Client s3Client() {
         // 1. 자격 증명(Access Key, Secret Key) 설정
@@ -32,9 +55,53 @@ public class AwsS3Config {
         Region awsRegion = Region.of(region);
 
         // 3. S3 Client 빈(Bean) 생성 및 반환
-        return S3Client.builder()
+        var builder = S3Client.builder()
                 .credentialsProvider(credentialsProvider)
                 .region(awsRegion)
-                .build();
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 업로드용 비동기 S3 클라이언트
+     * - 큰 파일은 멀티파트로 나눠 여러 조각을 동시에 업로드
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        long partSize = Math.max(5, partSizeMb) * 1024L * 1024L;
+        var builder = S3AsyncClient.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(uploadConcurrency))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(partSize)
+                        .minimumPartSizeInBytes(partSize)
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 클라이언트가 서버를 거치지 않고 버킷에 직접 올릴 수 있는 presigned URL 생성용
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        var builder = S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyleAccess)
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 }
@@ -0,0 +1,21 @@
+package com.rag.project.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration
+public class ModelClientConfig {
+
+    /**
+     * Spring AI 모델 클라이언트가 쓰는 재시도 템플릿 (자동 설정 대신 사용)
+     * - 재시도는 ModelGateway가 요청 한도/동시 호출 수를 보면서 처리하므로 여기서는 한 번만 시도
+     * - 두 곳에서 재시도하면 횟수가 곱해지고, 그동안 동시 호출 자리를 계속 붙잡음
+     */
+    @Bean
+    public RetryTemplate retryTemplate() {
+        return RetryTemplate.builder()
+                .maxAttempts(1)
+                .build();
+    }
+}
@@ -3,8 +3,7 @@ package com.rag.project.api.config;
 import com.rag.project.api.filter.JwtAuthFilter;
 import com.rag.project.api.handler.OAuth2SuccessHandler;
 import com.rag.project.api.service.CustomOAuth2UserService;
-import com.rag.project.api.service.MemberService;
-import com.rag.project.api.util.JwtUtil;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,10 +27,9 @@ public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2SuccessHandler  oAuth2SuccessHandler;
-    private final MemberService memberService;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtUtil jwtUtil) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable) // CSRF 비활성화
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // CORS 설정 적용
@@ -41,6 +39,9 @@ public class SecurityConfig {
                 )
 
                 .authorizeHttpRequests(auth -> auth
+                        //SSE 완료/시간 초과 시의 비동기 재디스패치는 이미 인가된 요청의 연장이므로 허용
+                        //(JwtAuthFilter는 요청당 한 번만 실행되어 재디스패치에는 인증 정보가 없음)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/api/members/signup",
                                 "/api/members/login",
@@ -57,7 +58,7 @@ public class SecurityConfig {
                         .userInfoEndpoint(userInfo -> userInfo.userService(customOAuth2UserService))//유저 정보 저장
                         .successHandler(oAuth2SuccessHandler)) //성공시 핸들러(토큰 발급)
 
-                .addFilterBefore(new JwtAuthFilter(jwtUtil, memberService), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,30 +1,98 @@
 package com.rag.project.api.controller;
 
+import com.rag.project.api.domain.MemberPrincipal;
 import com.rag.project.api.dto.ChatResponse;
 import com.rag.project.api.dto.ChatRequest;
 import com.rag.project.api.service.ChatService;
+import com.rag.project.api.service.ConversationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/chat")
 public class ChatController {
 
     private final ChatService chatService;
+    private final ConversationService conversationService;
+
+    //스트리밍 응답 최대 대기 시간
+    @Value("${rag.chat.stream-timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     @PostMapping
     public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest request
-                                             ,@AuthenticationPrincipal String memberEmail){
+                                             ,@AuthenticationPrincipal MemberPrincipal principal){
+        //대화방 확인 (없으면 새로 만듦)
+        Long conversationId = conversationService.openConversation(principal.memberId(), request.conversationId(), request.question());
+
         //서비스 호출
-        String answer = chatService.chat(request.question(), memberEmail);
+        String answer = chatService.chat(request.question(), principal.memberId(), conversationId, request.retrievalOptions());
 
         //응답
-        return ResponseEntity.ok(new ChatResponse(answer));
+        return ResponseEntity.ok(new ChatResponse(answer, conversationId));
+    }
+
+    /**
+     * 스트리밍 채팅 API (Server-Sent Events)
+     * - token: 답변 조각
+     * - done: 종료 (대화방 conversationId, 첫 토큰까지 걸린 시간 ttftMs, 전체 시간 totalMs)
+     * - 요청 스레드는 검색이 끝나면 바로 반납되고, 생성은 모델 클라이언트 스레드에서 전송
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody ChatRequest request
+                                 ,@AuthenticationPrincipal MemberPrincipal principal){
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        long startedAt = System.nanoTime();
+        AtomicLong firstTokenAt = new AtomicLong();
+        Long conversationId = conversationService.openConversation(principal.memberId(), request.conversationId(), request.question());
+
+        Disposable subscription = chatService.streamChat(request.question(), principal.memberId(), conversationId, request.retrievalOptions())
+                .subscribe(
+                        token -> {
+                            firstTokenAt.compareAndSet(0, System.nanoTime());
+                            send(emitter, "token", token);
+                        },
+                        error -> {
+                            log.error("스트리밍 채팅 실패: {}", error.getMessage());
+                            emitter.completeWithError(error);
+                        },
+                        () -> {
+                            long ttftMs = firstTokenAt.get() == 0 ? -1 : (firstTokenAt.get() - startedAt) / 1_000_000;
+                            long totalMs = (System.nanoTime() - startedAt) / 1_000_000;
+                            log.info("스트리밍 채팅 완료: ttft={}ms, total={}ms", ttftMs, totalMs);
+                            send(emitter, "done", Map.of("conversationId", conversationId, "ttftMs", ttftMs, "totalMs", totalMs));
+                            emitter.complete();
+                        });
+
+        //클라이언트가 연결을 끊거나 시간 초과되면 모델 스트림도 중단
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, String event, Object data){
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException e) {
+            //클라이언트 연결 끊김
+            emitter.completeWithError(e);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.rag.project.api.controller;
+
+import com.rag.project.api.domain.MemberPrincipal;
+import com.rag.project.api.dto.ChatMessageResponse;
+import com.rag.project.api.dto.ConversationResponse;
+import com.rag.project.api.dto.CursorPage;
+import com.rag.project.api.service.ConversationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/conversations")
+public class ConversationController {
+
+    private final ConversationService conversationService;
+
+    //대화방 목록 API (cursor: 이전 응답의 nextCursor)
+    @GetMapping
+    public ResponseEntity<CursorPage<ConversationResponse>> getConversations(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        return ResponseEntity.ok(conversationService.getConversations(principal.memberId(), cursor, size));
+    }
+
+    //대화방 메시지 API (최신순, cursor: 이전 응답의 nextCursor)
+    @GetMapping("/{conversationId}/messages")
+    public ResponseEntity<CursorPage<ChatMessageResponse>> getMessages(
+            @PathVariable Long conversationId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        return ResponseEntity.ok(conversationService.getMessages(principal.memberId(), conversationId, cursor, size));
+    }
+}
@@ -1,7 +1,14 @@
 package com.rag.project.api.controller;
 
+import com.rag.project.api.dto.DocumentStatusResponse;
 import com.rag.project.api.dto.DocumentUploadResponse;
+import com.rag.project.api.dto.PresignedUploadRequest;
+import com.rag.project.api.dto.PresignedUploadResponse;
+import com.rag.project.api.dto.UploadCompleteRequest;
+import com.rag.project.api.domain.ChunkingMode;
 import com.rag.project.api.domain.Document;
+import com.rag.project.api.domain.IngestionJob;
+import com.rag.project.api.domain.MemberPrincipal;
 import com.rag.project.api.service.DocumentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -25,32 +32,92 @@ public class DocumentController {
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE) //파일을 받음
     public ResponseEntity<DocumentUploadResponse> uploadDocument(
             @RequestPart("file") MultipartFile file,
-            @AuthenticationPrincipal String memberEmail
+            @RequestParam(value = "chunking", required = false) ChunkingMode chunking, //청킹 방식 (AUTO, TOKEN, PAGE, PARAGRAPH, SLIDE, SENTENCE)
+            @AuthenticationPrincipal MemberPrincipal principal
             ) throws IOException {
-        Document savedDocument = documentService.uploadDocument(file, memberEmail);
+        IngestionJob job = documentService.uploadDocument(file, principal.memberId(), chunking);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toUploadResponse(job));
+    }
 
-        //응답 생성
-        DocumentUploadResponse response = new DocumentUploadResponse(
+    //직접 업로드 URL 발급 API (파일은 클라이언트가 S3에 바로 PUT)
+    @PostMapping("/uploads")
+    public ResponseEntity<PresignedUploadResponse> createUploadUrl(
+            @RequestBody PresignedUploadRequest request,
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        return ResponseEntity.ok(documentService.createUploadUrl(principal.memberId(), request.fileName(), request.contentType()));
+    }
+
+    //직접 업로드 완료 API (문서 등록 후 학습 시작)
+    @PostMapping("/uploads/complete")
+    public ResponseEntity<DocumentUploadResponse> completeUpload(
+            @RequestBody UploadCompleteRequest request,
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        IngestionJob job = documentService.completeUpload(principal.memberId(), request.key(), request.fileName(),
+                request.contentType(), request.chunking());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toUploadResponse(job));
+    }
+
+    //응답 생성 (학습은 백그라운드에서 진행, 상태 API로 확인)
+    private DocumentUploadResponse toUploadResponse(IngestionJob job) {
+        Document savedDocument = job.getDocument();
+        return new DocumentUploadResponse(
                 savedDocument.getId(),
                 savedDocument.getOriginalFileName(),
-                savedDocument.getS3FileUrl()
+                savedDocument.getS3FileUrl(),
+                job.getId(),
+                job.getStatus().name(),
+                chunkingModeName(job)
         );
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    //청킹 방식 도입 전 작업은 값이 없음 (당시에는 토큰 청킹만 있었음)
+    private static String chunkingModeName(IngestionJob job) {
+        return job.getChunkingMode() != null ? job.getChunkingMode().name() : ChunkingMode.TOKEN.name();
+    }
+
+    //문서 학습 진행 상황 API
+    @GetMapping("/{documentId}/status")
+    public ResponseEntity<DocumentStatusResponse> getDocumentStatus(
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        IngestionJob job = documentService.getIngestionStatus(documentId, principal.memberId());
+
+        return ResponseEntity.ok(new DocumentStatusResponse(
+                documentId,
+                job.getId(),
+                job.getStatus().name(),
+                chunkingModeName(job),
+                job.getTotalChunks(),
+                job.getEmbeddedChunks(),
+                job.getErrorMessage()
+        ));
     }
 
     @DeleteMapping("/{documentId}")
     public ResponseEntity<Void> deleteDocument(
             @PathVariable Long documentId,
-            @AuthenticationPrincipal String memberEmail
+            @AuthenticationPrincipal MemberPrincipal principal
+    ){
+        documentService.deleteDocument(documentId, principal.memberId());
+        return ResponseEntity.noContent().build();
+    }
+
+    //문서 여러 개 삭제 API (S3 원본은 백그라운드에서 삭제)
+    @DeleteMapping
+    public ResponseEntity<Void> deleteDocuments(
+            @RequestParam("ids") List<Long> documentIds,
+            @AuthenticationPrincipal MemberPrincipal principal
     ){
-        documentService.deleteDocument(documentId, memberEmail);
+        documentService.deleteDocuments(documentIds, principal.memberId());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping
-    public ResponseEntity<List<DocumentResponse>> getMyDocuments(@AuthenticationPrincipal String memberEmail) {
-        List<Document> documents = documentService.getMemberDocuments(memberEmail);
+    public ResponseEntity<List<DocumentResponse>> getMyDocuments(@AuthenticationPrincipal MemberPrincipal principal) {
+        List<Document> documents = documentService.getMemberDocuments(principal.memberId());
 
         List<DocumentResponse> response = documents.stream()
                 .map(doc -> new DocumentResponse(doc.getId(), doc.getOriginalFileName(), doc.getCreateAt()))
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)//기본 생성자 생성
 @EntityListeners(AuditingEntityListener.class)//생성 시간을 자동으로 기록하기 위해 필요
-@Table(name = "chat_history")
+@Table(name = "chat_history",
+        indexes = @Index(name = "idx_chat_history_conversation_created", columnList = "conversation_id, created_at"))
 public class ChatHistory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) //ID는 1씩 자동 증가
@@ -25,6 +26,10 @@ public class ChatHistory {
     @JoinColumn(name = "member_id")
     private Member member;
 
+    @ManyToOne(fetch = FetchType.LAZY) //대화방 (이전 버전에서 저장된 기록은 서버 시작 시 백필)
+    @JoinColumn(name = "conversation_id")
+    private Conversation conversation;
+
     @Column(nullable = false)
     private String role; //말한 사람
 
@@ -35,8 +40,9 @@ public class ChatHistory {
     private LocalDateTime createdAt;
 
     @Builder //객체 생성 편하게 해주는 빌더 패턴
-    public ChatHistory(Member member, String role, String content) {
+    public ChatHistory(Member member, Conversation conversation, String role, String content) {
         this.member = member;
+        this.conversation = conversation;
         this.role = role;
         this.content = content;
     }
@@ -1,18 +1,40 @@
 package com.rag.project.api.domain;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatHistoryRepository extends JpaRepository<ChatHistory,Long> {
 
-    @Query(value = "SELECT * FROM chat_history " +
-            "WHERE member_id = :memberId " +
-            "ORDER BY created_at DESC " +
-            "LIMIT 10",
-            nativeQuery = true)
-    //특정 회원의 대화 기록을 최신순으로 10개 가져옴
-    List<ChatHistory> findRecentChats(@Param("memberId") Long memberId);
+    //대화방의 대화 기록을 최신순으로 가져옴 ((conversation_id, created_at) 인덱스 사용)
+    @Query("SELECT h FROM ChatHistory h WHERE h.conversation.id = :conversationId " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<ChatHistory> findRecentChats(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    //대화방에 대화 기록이 있는지
+    boolean existsByConversationId(Long conversationId);
+
+    //커서(마지막으로 본 메시지)보다 오래된 대화 기록 - OFFSET 없이 인덱스에서 바로 이어서 읽음
+    @Query("SELECT h FROM ChatHistory h WHERE h.conversation.id = :conversationId " +
+            "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<ChatHistory> findChatsBefore(@Param("conversationId") Long conversationId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    //afterId(요약에 반영된 마지막 대화) 이후의 대화 기록을 최신순으로 가져옴 (요약 안 된 대화 전부)
+    @Query("SELECT h FROM ChatHistory h WHERE h.conversation.id = :conversationId " +
+            "AND h.id > :afterId ORDER BY h.id DESC")
+    List<ChatHistory> findChatsAfter(@Param("conversationId") Long conversationId, @Param("afterId") long afterId,
+                                     Pageable pageable);
+
+    //afterId와 beforeId 사이의 대화 기록을 오래된 순으로 가져옴 (요약 대상)
+    @Query("SELECT h FROM ChatHistory h WHERE h.conversation.id = :conversationId " +
+            "AND h.id > :afterId AND h.id < :beforeId ORDER BY h.id ASC")
+    List<ChatHistory> findChatsBetween(@Param("conversationId") Long conversationId, @Param("afterId") long afterId,
+                                       @Param("beforeId") long beforeId, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.rag.project.api.domain;
+
+/**
+ * 문서를 청크로 나누는 방식 (업로드마다 선택)
+ */
+public enum ChunkingMode {
+    AUTO,       //파일 형식에 맞춰 자동 선택 (PDF: PAGE, Word: PARAGRAPH, PPT: SLIDE, 텍스트: SENTENCE)
+    TOKEN,      //고정 토큰 수로 자름 (기존 방식)
+    PAGE,       //PDF 페이지/제목 단위
+    PARAGRAPH,  //Word 문단 스타일(제목) 단위, 표는 따로
+    SLIDE,      //PPT 슬라이드 단위
+    SENTENCE    //문장 단위로 모아서 자름 (문장 중간에서 끊지 않음)
+}
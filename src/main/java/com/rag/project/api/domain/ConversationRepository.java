@@ -0,0 +1,32 @@
+package com.rag.project.api.domain;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    //회원의 대화방 목록 첫 페이지 (최근 대화순)
+    @Query("SELECT c FROM Conversation c WHERE c.member.id = :memberId " +
+            "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Conversation> findPage(@Param("memberId") Long memberId, Pageable pageable);
+
+    //커서(마지막으로 본 대화방) 다음 페이지 - OFFSET 없이 인덱스에서 바로 이어서 읽음
+    @Query("SELECT c FROM Conversation c WHERE c.member.id = :memberId " +
+            "AND (c.updatedAt < :updatedAt OR (c.updatedAt = :updatedAt AND c.id < :id)) " +
+            "ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Conversation> findPageAfter(@Param("memberId") Long memberId, @Param("updatedAt") LocalDateTime updatedAt,
+                                     @Param("id") Long id, Pageable pageable);
+
+    //마지막 대화 시간 갱신 (스트리밍 응답은 트랜잭션 밖에서 저장되므로 쿼리로 처리)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Conversation c SET c.updatedAt = :updatedAt WHERE c.id = :id")
+    int touch(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,54 @@
+package com.rag.project.api.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대화방별 이전 대화 요약
+ * - 최근 대화 몇 개를 뺀 오래된 대화를 한 문단으로 접어서 보관 (백그라운드에서 갱신)
+ * - 프롬프트에는 요약 + 최근 대화만 넣어서 대화가 길어져도 크기가 일정하게 유지됨
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "conversation_summaries")
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "summary_id")
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false, unique = true)
+    private Long conversationId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String summary;
+
+    private Long lastChatId; //요약에 반영된 마지막 대화 기록 id
+
+    private LocalDateTime updatedAt;
+
+    @Builder
+    public ConversationSummary(Long conversationId) {
+        this.conversationId = conversationId;
+        this.summary = "";
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    //새 대화를 반영한 요약으로 교체
+    public void update(String summary, Long lastChatId) {
+        this.summary = summary;
+        this.lastChatId = lastChatId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rag.project.api.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    Optional<ConversationSummary> findByConversationId(Long conversationId);
+}
@@ -0,0 +1,16 @@
+package com.rag.project.api.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+//pgvector 거리 계산 방식 (검색 연산자와 인덱스 연산자 클래스는 반드시 짝이 맞아야 인덱스를 탐)
+@Getter
+@RequiredArgsConstructor
+public enum DistanceMetric {
+    L2("<->", "vector_l2_ops"),                //유클리드 거리
+    COSINE("<=>", "vector_cosine_ops"),        //코사인 거리
+    INNER_PRODUCT("<#>", "vector_ip_ops");     //내적 (음수로 반환됨)
+
+    private final String operator;       //ORDER BY 에 쓰는 연산자
+    private final String operatorClass;  //인덱스 생성 시 연산자 클래스
+}
@@ -13,7 +13,7 @@ import java.util.List;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "documents")
+@Table(name = "documents", indexes = @Index(name = "idx_documents_content_hash", columnList = "content_hash"))
 public class Document {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +26,9 @@ public class Document {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String s3FileUrl; //s3에 저장된 파일의 Url
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; //원본 파일 SHA-256 (같은 파일 재업로드 확인용)
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createAt; //업로드 날짜
 
@@ -36,18 +39,27 @@ public class Document {
     @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DocumentEmbedding> embeddings = new ArrayList<>();
 
+    @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<IngestionJob> ingestionJobs = new ArrayList<>();
+
     @PrePersist //DB에 Insert 되기 직전에 자동으로 호출
     protected void onCreate() {
         this.createAt = LocalDateTime.now();
     }
 
     @Builder
-    public Document(String originalFileName, String s3FileUrl, Member member) {
+    public Document(String originalFileName, String s3FileUrl, String contentHash, Member member) {
         this.originalFileName = originalFileName;
         this.s3FileUrl = s3FileUrl;
+        this.contentHash = contentHash;
         this.member = member;
     }
 
+    //원본을 서버가 직접 받지 않은 경우(presigned 업로드) 학습 워커가 계산해서 채움
+    public void updateContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public String getFileName(){
         return this.originalFileName;
     }
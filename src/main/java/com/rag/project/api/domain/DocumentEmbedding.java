@@ -12,7 +12,11 @@ import org.hibernate.type.SqlTypes;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "document_embeddings")
+@Table(name = "document_embeddings",
+        indexes = {
+                @Index(name = "idx_document_embeddings_member", columnList = "member_id"),
+                @Index(name = "idx_document_embeddings_chunk_hash", columnList = "chunk_hash")
+        })
 public class DocumentEmbedding {
 
     @Id
@@ -24,9 +28,18 @@ public class DocumentEmbedding {
     @JoinColumn(name = "document_id", nullable = false)
     private Document document; //어떤 문서의 조각인지 파악
 
+    //문서 소유자 (documents 조인 없이 회원별 벡터 검색을 하기 위해 중복 저장)
+    //기존 행은 SchemaManager가 서버 시작 시 채움
+    @Column(name = "member_id")
+    private Long memberId;
+
     @Column(columnDefinition = "TEXT") //긴 텍스트 저장
     private String textSegment; //쪼개진 텍스트 조각
 
+    //텍스트 조각 SHA-256 (같은 조각은 다시 임베딩하지 않고 벡터 재사용)
+    @Column(name = "chunk_hash", length = 64)
+    private String chunkHash;
+
     //벡터 데이터
     //PostgreSQL의 vector 타입과 매핑
     @JdbcTypeCode(SqlTypes.VECTOR)
@@ -35,9 +48,11 @@ public class DocumentEmbedding {
     private float[] embeddingVector;
 
     @Builder
-    public DocumentEmbedding(Document document, String textSegment, float[] embeddingVector) {
+    public DocumentEmbedding(Document document, Long memberId, String textSegment, String chunkHash, float[] embeddingVector) {
         this.document = document;
+        this.memberId = memberId;
         this.textSegment = textSegment;
+        this.chunkHash = chunkHash;
         this.embeddingVector = embeddingVector;
     }
     public String getFileName(){
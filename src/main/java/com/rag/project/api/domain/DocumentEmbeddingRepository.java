@@ -1,24 +1,25 @@
 package com.rag.project.api.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface DocumentEmbeddingRepository extends JpaRepository<DocumentEmbedding, Long> {
+public interface DocumentEmbeddingRepository extends JpaRepository<DocumentEmbedding, Long>, DocumentEmbeddingRepositoryCustom {
 
     /**
-     * 벡터 유사도 검색
-     * 질문 벡터와 가장 거리가 가까운 문서 조각 5개 찾기
+     * 문서의 벡터 조각 일괄 삭제
+     * - 엔티티를 하나씩 불러오지 않고 DELETE 한 번으로 처리
      */
-    //@query: jpa가 만들어주는 기본기능으로 해결 안 될 때, 직접 SQL을 작성
-    //<->: 벡터 간 거리를 계산하는 pgvector 연산자
-    @Query(value = "SELECT e. * FROM document_embeddings e " +
-                   "JOIN documents d ON e.document_id = d.document_id " +
-                   "WHERE d.member_id = :memberId " +
-                   "ORDER BY embedding_vector <-> cast(:queryVector as vector) ASC " +
-                   "LIMIT 5", nativeQuery = true) //가장 유사한 5개 가져옴
-    List<DocumentEmbedding> findNearest(@Param("queryVector") float[] queryVector,
-                                        @Param("memberId") Long memberId); //사용자 ID 파라미터 추가
+    @Modifying
+    @Query("DELETE FROM DocumentEmbedding e WHERE e.document.id = :documentId")
+    int deleteByDocumentId(@Param("documentId") Long documentId);
+
+    //여러 문서의 벡터 조각 일괄 삭제
+    @Modifying
+    @Query("DELETE FROM DocumentEmbedding e WHERE e.document.id IN :documentIds")
+    int deleteByDocumentIdIn(@Param("documentIds") Collection<Long> documentIds);
 }
@@ -0,0 +1,51 @@
+package com.rag.project.api.domain;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+//JPA로 처리하기 비효율적인 벡터 조각 작업 (JdbcTemplate 직접 사용)
+public interface DocumentEmbeddingRepositoryCustom {
+
+    /**
+     * 벡터 조각 일괄 저장
+     * - IDENTITY 키는 Hibernate가 배치 INSERT를 못 하므로, 여러 행을 한 INSERT 문으로 묶어서 저장
+     * - 조각마다 텍스트 해시(chunk_hash)를 함께 저장
+     *
+     * @return 저장된 행 수
+     */
+    int bulkInsert(Long documentId, Long memberId, List<String> textSegments, List<float[]> vectors);
+
+    /**
+     * 벡터 유사도 검색
+     * 질문 벡터와 가장 거리가 가까운 문서 조각 topK개 찾기 (maxDistance보다 먼 조각은 제외)
+     * - 거리 계산 방식은 벡터 인덱스(rag.retrieval.metric)와 같아야 인덱스를 탐
+     */
+    List<DocumentEmbedding> findNearest(float[] queryVector, Long memberId, RetrievalOptions options);
+
+    /**
+     * 키워드 검색 (PostgreSQL 전문 검색, text_segment 식 GIN 인덱스)
+     * - 과목 코드, 규정 번호, 이름처럼 벡터 검색이 놓치는 정확한 단어 일치용
+     */
+    List<DocumentEmbedding> findByKeywords(String question, Long memberId, int topK);
+
+    /**
+     * 하이브리드 검색: 벡터 검색 + 키워드 검색 결과를 RRF(reciprocal rank fusion)로 합침
+     * - 두 검색과 합산을 쿼리 하나로 처리 (DB 왕복 1회)
+     */
+    List<DocumentEmbedding> findHybrid(float[] queryVector, String question, Long memberId, RetrievalOptions options);
+
+    /**
+     * 이미 저장된 같은 텍스트 조각의 벡터 조회
+     *
+     * @return 조각 해시 -> 벡터 (없는 해시는 빠짐)
+     */
+    Map<String, float[]> findVectorsByChunkHashes(Collection<String> chunkHashes);
+
+    /**
+     * 다른 문서의 벡터 조각을 그대로 복사 (같은 파일을 다른 회원이 올린 경우)
+     *
+     * @return 복사된 행 수
+     */
+    int copyEmbeddings(Long sourceDocumentId, Long targetDocumentId, Long targetMemberId);
+}
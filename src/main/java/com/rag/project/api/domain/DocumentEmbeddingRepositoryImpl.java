@@ -0,0 +1,342 @@
+package com.rag.project.api.domain;
+
+import com.rag.project.api.util.HashUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+public class DocumentEmbeddingRepositoryImpl implements DocumentEmbeddingRepositoryCustom {
+
+    //키워드 검색에 쓸 단어 (문자/숫자 연속)
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_QUERY_TERMS = 16;
+    //이보다 짧은 단어는 접두어로 쓰면 거의 모든 조각과 일치하므로 제외
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //INSERT 문 하나에 담을 최대 행 수 (행당 1536차원 벡터가 들어가므로 너무 크게 잡지 않음)
+    @Value("${rag.embedding.insert-rows-per-statement:200}")
+    private int rowsPerStatement;
+
+    //거리 계산 방식 (SchemaManager가 만드는 인덱스와 같은 설정값 사용)
+    @Value("${rag.retrieval.metric:L2}")
+    private DistanceMetric metric;
+
+    //HNSW 검색 후보 수 (클수록 정확, 느림 / 0이면 DB 기본값 40)
+    @Value("${rag.retrieval.hnsw-ef-search:0}")
+    private int hnswEfSearch;
+
+    //IVFFlat 탐색 클러스터 수 (클수록 정확, 느림 / 0이면 DB 기본값 1)
+    @Value("${rag.retrieval.ivfflat-probes:0}")
+    private int ivfflatProbes;
+
+    //회원 조건 때문에 ANN 결과가 부족할 때 인덱스를 더 읽을지 (pgvector 0.8+: off, relaxed_order, strict_order)
+    @Value("${rag.retrieval.iterative-scan:}")
+    private String iterativeScan;
+
+    //회원별 부분 인덱스 사용 여부 (SchemaManager와 같은 설정값)
+    @Value("${rag.vector-index.per-member-min-rows:0}")
+    private int perMemberIndexMinRows;
+
+    //전문 검색 설정 (SchemaManager가 키워드 검색 인덱스를 만들 때와 같아야 함)
+    @Value("${rag.retrieval.text-search-config:simple}")
+    private String textSearchConfig;
+
+    //하이브리드 검색: 각 검색기에서 가져올 후보 수
+    @Value("${rag.retrieval.hybrid.candidates:40}")
+    private int hybridCandidates;
+
+    //하이브리드 검색: RRF 가중치와 순위 완화 상수 (score = weight / (k + rank))
+    @Value("${rag.retrieval.hybrid.vector-weight:1.0}")
+    private double vectorWeight;
+
+    @Value("${rag.retrieval.hybrid.keyword-weight:1.0}")
+    private double keywordWeight;
+
+    @Value("${rag.retrieval.hybrid.rrf-k:60}")
+    private int rrfK;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DocumentEmbedding> findNearest(float[] queryVector, Long memberId, RetrievalOptions options) {
+        applySearchParameters();
+
+        //<->, <=>, <#>: 벡터 간 거리를 계산하는 pgvector 연산자
+        //documents 조인 없이 중복 저장된 member_id로 바로 거름
+        //안쪽 쿼리는 인덱스로 상위 K개를 찾고, 바깥에서 기준 거리를 넘는 조각을 버림 (WHERE에 거리를 넣으면 인덱스를 못 탐)
+        String sql = "SELECT n.* FROM (" +
+                "SELECT e.*, e.embedding_vector " + operator(options) + " cast(:queryVector as vector) AS distance " +
+                "FROM document_embeddings e " +
+                "WHERE " + memberFilter(memberId) + " " +
+                "ORDER BY distance ASC " +
+                "LIMIT :topK) n " +
+                (options.maxDistance() != null ? "WHERE n.distance <= :maxDistance " : "") +
+                "ORDER BY n.distance ASC";
+
+        var query = entityManager.createNativeQuery(sql, DocumentEmbedding.class)
+                .setParameter("queryVector", toVectorLiteral(queryVector))
+                .setParameter("topK", options.topK());
+        if (options.maxDistance() != null) {
+            query.setParameter("maxDistance", options.maxDistance());
+        }
+        bindMember(query, memberId);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DocumentEmbedding> findByKeywords(String question, Long memberId, int topK) {
+        String tsQuery = toPrefixQuery(question);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        //인덱스와 같은 식이어야 SchemaManager가 만든 GIN 인덱스를 탐
+        String tsv = textVector(textSearchConfig, "e.text_segment");
+        String sql = "SELECT e.* FROM document_embeddings e, to_tsquery(cast(:config as regconfig), :tsQuery) q " +
+                "WHERE " + memberFilter(memberId) + " AND " + tsv + " @@ q " +
+                "ORDER BY ts_rank_cd(" + tsv + ", q) DESC " +
+                "LIMIT :topK";
+
+        var query = entityManager.createNativeQuery(sql, DocumentEmbedding.class)
+                .setParameter("config", textSearchConfig)
+                .setParameter("tsQuery", tsQuery)
+                .setParameter("topK", topK);
+        bindMember(query, memberId);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DocumentEmbedding> findHybrid(float[] queryVector, String question, Long memberId, RetrievalOptions options) {
+        String tsQuery = toPrefixQuery(question);
+        if (tsQuery == null) {
+            return findNearest(queryVector, memberId, options); //검색어로 쓸 단어가 없으면 벡터 검색만
+        }
+        applySearchParameters();
+
+        //벡터 순위와 키워드 순위를 각각 구한 뒤 RRF(weight / (k + rank))로 합산, 한 번의 쿼리로 처리
+        //기준 거리는 벡터 후보에만 적용 (키워드 일치는 거리와 상관없이 유지)
+        String filter = memberFilter(memberId);
+        String tsv = textVector(textSearchConfig, "e.text_segment");
+        String distanceFilter = options.maxDistance() != null ? " WHERE distance <= :maxDistance" : "";
+        String sql = "WITH vec AS (" +
+                "  SELECT embedding_id, row_number() OVER (ORDER BY distance) AS rnk FROM (" +
+                "    SELECT e.embedding_id, e.embedding_vector " + operator(options) + " cast(:queryVector as vector) AS distance " +
+                "    FROM document_embeddings e WHERE " + filter +
+                "    ORDER BY distance LIMIT :candidates) v" + distanceFilter +
+                "), kw AS (" +
+                "  SELECT embedding_id, row_number() OVER (ORDER BY rank DESC) AS rnk FROM (" +
+                "    SELECT e.embedding_id, ts_rank_cd(" + tsv + ", q) AS rank " +
+                "    FROM document_embeddings e, to_tsquery(cast(:config as regconfig), :tsQuery) q " +
+                "    WHERE " + filter + " AND " + tsv + " @@ q " +
+                "    ORDER BY rank DESC LIMIT :candidates) k" +
+                "), fused AS (" +
+                "  SELECT embedding_id, sum(score) AS score FROM (" +
+                "    SELECT embedding_id, :vectorWeight / (:rrfK + rnk) AS score FROM vec" +
+                "    UNION ALL" +
+                "    SELECT embedding_id, :keywordWeight / (:rrfK + rnk) AS score FROM kw" +
+                "  ) s GROUP BY embedding_id" +
+                ") " +
+                "SELECT e.* FROM fused f JOIN document_embeddings e ON e.embedding_id = f.embedding_id " +
+                "ORDER BY f.score DESC LIMIT :topK";
+
+        var query = entityManager.createNativeQuery(sql, DocumentEmbedding.class)
+                .setParameter("queryVector", toVectorLiteral(queryVector))
+                .setParameter("config", textSearchConfig)
+                .setParameter("tsQuery", tsQuery)
+                .setParameter("candidates", Math.max(hybridCandidates, options.topK()))
+                .setParameter("vectorWeight", vectorWeight)
+                .setParameter("keywordWeight", keywordWeight)
+                .setParameter("rrfK", (double) rrfK)
+                .setParameter("topK", options.topK());
+        if (options.maxDistance() != null) {
+            query.setParameter("maxDistance", options.maxDistance());
+        }
+        bindMember(query, memberId);
+        return query.getResultList();
+    }
+
+    //요청에 거리 방식이 없으면 인덱스와 같은 설정값 사용
+    private String operator(RetrievalOptions options) {
+        return (options.metric() != null ? options.metric() : metric).getOperator();
+    }
+
+    //회원별 부분 인덱스(WHERE member_id = N)는 조건이 상수여야 플래너가 고름
+    //memberId는 Long 이므로 SQL에 직접 넣어도 안전
+    private String memberFilter(Long memberId) {
+        return perMemberIndexMinRows > 0
+                ? "e.member_id = " + memberId
+                : "e.member_id = :memberId";
+    }
+
+    private void bindMember(Query query, Long memberId) {
+        if (perMemberIndexMinRows <= 0) {
+            query.setParameter("memberId", memberId);
+        }
+    }
+
+    /**
+     * 질문을 접두어 OR 검색식으로 변환 (예: "CS-101 수강 규정은" -> "cs:* | 101:* | 수강:* | 규정은:*")
+     * - 한국어는 조사가 붙어 저장되므로 접두어 일치(:*)로 찾음
+     * - 문자/숫자만 남기므로 tsquery 문법 오류가 나지 않음
+     * - 한 글자 단어("a", "의" 등)는 제외 (접두어 일치로 대부분의 조각을 읽게 됨)
+     */
+    static String toPrefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        Matcher matcher = TERM.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_QUERY_TERMS) {
+            String term = matcher.group();
+            if (term.codePointCount(0, term.length()) >= MIN_TERM_LENGTH) {
+                terms.add(term + ":*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" | ", terms);
+    }
+
+    /**
+     * 키워드 검색용 tsvector 식 (SchemaManager의 GIN 인덱스 식과 검색 쿼리가 함께 사용)
+     * - 설정 이름을 상수로 넣어야 플래너가 인덱스 식과 같은 식으로 인식함
+     */
+    public static String textVector(String config, String column) {
+        if (!config.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("잘못된 전문 검색 설정입니다: " + config);
+        }
+        return "to_tsvector('" + config + "'::regconfig, coalesce(" + column + ", ''))";
+    }
+
+    /**
+     * 검색 정확도/속도 조절값을 현재 트랜잭션에만 적용 (SET LOCAL 과 같음)
+     * - 호출하는 쪽이 트랜잭션 안에 있어야 같은 커넥션에서 검색 쿼리에 반영됨
+     */
+    private void applySearchParameters() {
+        if (hnswEfSearch > 0) {
+            setLocal("hnsw.ef_search", String.valueOf(hnswEfSearch));
+        }
+        if (ivfflatProbes > 0) {
+            setLocal("ivfflat.probes", String.valueOf(ivfflatProbes));
+        }
+        if (iterativeScan != null && !iterativeScan.isBlank()) {
+            setLocal("hnsw.iterative_scan", iterativeScan);
+            setLocal("ivfflat.iterative_scan", iterativeScan);
+        }
+    }
+
+    private void setLocal(String name, String value) {
+        entityManager.createNativeQuery("SELECT set_config(:name, :value, true)")
+                .setParameter("name", name)
+                .setParameter("value", value)
+                .getSingleResult();
+    }
+
+    @Override
+    public int bulkInsert(Long documentId, Long memberId, List<String> textSegments, List<float[]> vectors) {
+        if (textSegments.size() != vectors.size()) {
+            throw new IllegalArgumentException("텍스트 조각 수와 벡터 수가 다릅니다.");
+        }
+
+        int inserted = 0;
+        for (int from = 0; from < textSegments.size(); from += rowsPerStatement) {
+            int to = Math.min(from + rowsPerStatement, textSegments.size());
+
+            //multi-row INSERT: VALUES (...), (...), ...
+            List<Object> args = new ArrayList<>((to - from) * 5);
+            for (int i = from; i < to; i++) {
+                args.add(documentId);
+                args.add(memberId);
+                args.add(textSegments.get(i));
+                args.add(HashUtil.sha256Hex(textSegments.get(i)));
+                args.add(toVectorLiteral(vectors.get(i)));
+            }
+            inserted += jdbcTemplate.update(insertSql(to - from), args.toArray());
+        }
+        return inserted;
+    }
+
+    @Override
+    public Map<String, float[]> findVectorsByChunkHashes(Collection<String> chunkHashes) {
+        Map<String, float[]> vectors = new HashMap<>();
+        if (chunkHashes.isEmpty()) {
+            return vectors;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(chunkHashes.size(), "?"));
+        jdbcTemplate.query(
+                "SELECT DISTINCT ON (chunk_hash) chunk_hash, embedding_vector::text AS vector FROM document_embeddings " +
+                        "WHERE chunk_hash IN (" + placeholders + ")",
+                rs -> {
+                    vectors.put(rs.getString("chunk_hash"), parseVectorLiteral(rs.getString("vector")));
+                },
+                chunkHashes.toArray());
+        return vectors;
+    }
+
+    @Override
+    public int copyEmbeddings(Long sourceDocumentId, Long targetDocumentId, Long targetMemberId) {
+        return jdbcTemplate.update(
+                "INSERT INTO document_embeddings (document_id, member_id, text_segment, chunk_hash, embedding_vector) " +
+                        "SELECT ?, ?, text_segment, chunk_hash, embedding_vector FROM document_embeddings " +
+                        "WHERE document_id = ? ORDER BY embedding_id",
+                targetDocumentId, targetMemberId, sourceDocumentId);
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO document_embeddings (document_id, member_id, text_segment, chunk_hash, embedding_vector) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, cast(? as vector))");
+        }
+        return sql.toString();
+    }
+
+    //pgvector 입력 형식: [0.1,0.2,...]
+    public static String toVectorLiteral(float[] vector) {
+        StringBuilder sb = new StringBuilder(vector.length * 12);
+        sb.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    //pgvector 출력 형식 [0.1,0.2,...] -> float[]
+    static float[] parseVectorLiteral(String literal) {
+        String body = literal.substring(1, literal.length() - 1);
+        if (body.isEmpty()) {
+            return new float[0];
+        }
+        String[] parts = body.split(",");
+        float[] vector = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            vector[i] = Float.parseFloat(parts[i]);
+        }
+        return vector;
+    }
+}
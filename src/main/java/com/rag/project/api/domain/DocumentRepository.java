@@ -2,8 +2,19 @@ package com.rag.project.api.domain;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByMemberId(Long memberId);
+
+    //같은 회원이 같은 내용의 파일을 이미 올렸는지
+    Optional<Document> findFirstByMemberIdAndContentHashOrderByIdDesc(Long memberId, String contentHash);
+
+    //같은 내용의 파일이 (회원 상관없이) 이미 있는지 - 가장 먼저 올라온 것
+    Optional<Document> findFirstByContentHashOrderByIdAsc(String contentHash);
+
+    //같은 S3 원본을 공유하는 문서 중 ids에 없는 문서 수 (함께 삭제되는 문서 제외)
+    long countByS3FileUrlAndIdNotIn(String s3FileUrl, Collection<Long> ids);
 }
@@ -0,0 +1,42 @@
+package com.rag.project.api.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Array;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * 질문 임베딩 캐시의 2차(영구) 저장소
+ * - 서버가 재시작되어도 자주 묻는 질문의 벡터를 다시 계산하지 않도록 함
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "embedding_cache")
+public class EmbeddingCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey; //SHA-256(모델명 + 정규화된 텍스트)
+
+    @JdbcTypeCode(SqlTypes.VECTOR)
+    @Array(length = 1536) //OpenAi 임베딩 차원 수
+    @Column(name = "embedding_vector", nullable = false)
+    private float[] embeddingVector;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public EmbeddingCacheEntry(String cacheKey, float[] embeddingVector) {
+        this.cacheKey = cacheKey;
+        this.embeddingVector = embeddingVector;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,29 @@
+package com.rag.project.api.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface EmbeddingCacheEntryRepository extends JpaRepository<EmbeddingCacheEntry, String> {
+
+    //캐시 저장 (같은 키가 이미 있으면 갱신, 중복 키 오류 없음)
+    //호출한 쪽 트랜잭션과 분리해서, 캐시 저장이 실패해도 요청 트랜잭션에 영향이 없도록 함
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO embedding_cache (cache_key, embedding_vector, created_at) " +
+            "VALUES (:cacheKey, cast(:vector as vector), now()) " +
+            "ON CONFLICT (cache_key) DO UPDATE SET embedding_vector = EXCLUDED.embedding_vector, created_at = EXCLUDED.created_at",
+            nativeQuery = true)
+    int upsert(@Param("cacheKey") String cacheKey, @Param("vector") String vector);
+
+    //만료된 캐시 삭제
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmbeddingCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,126 @@
+package com.rag.project.api.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 학습 작업
+ * - 업로드 요청은 S3 저장 + 작업 등록까지만 하고, 나머지는 백그라운드 워커가 처리
+ * - DB에 저장되므로 서버가 재시작되어도 작업이 이어짐
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "ingestion_jobs", indexes = @Index(name = "idx_ingestion_jobs_status", columnList = "status"))
+public class IngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false)
+    private Document document; //학습할 문서
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String s3Key; //워커가 원본을 다시 내려받을 S3 키
+
+    private String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ChunkingMode chunkingMode; //청킹 방식 (업로드 시 선택)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IngestionStatus status;
+
+    private int totalChunks; //전체 청크 수
+
+    private int embeddedChunks; //저장 완료된 청크 수 (이어서 처리할 때 이만큼 건너뜀)
+
+    @ColumnDefault("0") //기존 작업 행이 있는 테이블에 컬럼 추가 가능하도록
+    private int attempts; //처리 시도 횟수
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage; //실패 사유
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Builder
+    public IngestionJob(Document document, String s3Key, String contentType, ChunkingMode chunkingMode) {
+        this.document = document;
+        this.s3Key = s3Key;
+        this.contentType = contentType;
+        this.chunkingMode = chunkingMode;
+        this.status = IngestionStatus.QUEUED;
+    }
+
+    public void markExtracting() {
+        this.status = IngestionStatus.EXTRACTING;
+        this.errorMessage = null;
+        this.attempts++;
+    }
+
+    public void markEmbedding(int totalChunks) {
+        this.status = IngestionStatus.EMBEDDING;
+        this.totalChunks = totalChunks;
+    }
+
+    public void addEmbeddedChunks(int count) {
+        this.embeddedChunks += count;
+    }
+
+    public void markReady() {
+        this.status = IngestionStatus.READY;
+    }
+
+    public void markFailed(String errorMessage) {
+        this.status = IngestionStatus.FAILED;
+        this.errorMessage = errorMessage;
+    }
+
+    //중단된 작업을 처음부터 다시 대기열에 올림
+    public void requeue() {
+        this.status = IngestionStatus.QUEUED;
+        this.totalChunks = 0;
+        this.embeddedChunks = 0;
+        this.attempts = 0;
+    }
+
+    //중단된 작업을 저장된 청크 다음부터 이어서 처리하도록 대기열에 올림
+    public void resume() {
+        this.status = IngestionStatus.QUEUED;
+    }
+
+    //다른 청킹 방식으로 다시 학습
+    public void rechunk(ChunkingMode chunkingMode) {
+        this.chunkingMode = chunkingMode;
+        requeue();
+    }
+
+    public boolean isFinished() {
+        return status == IngestionStatus.READY || status == IngestionStatus.FAILED;
+    }
+}
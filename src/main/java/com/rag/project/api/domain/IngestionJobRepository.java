@@ -0,0 +1,33 @@
+package com.rag.project.api.domain;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+    //문서의 가장 최근 작업
+    @EntityGraph(attributePaths = "document")
+    Optional<IngestionJob> findFirstByDocumentIdOrderByIdDesc(Long documentId);
+
+    //같은 S3 원본의 가장 최근 작업 (업로드 완료 요청 중복 확인)
+    @EntityGraph(attributePaths = "document") //응답에 문서 정보를 쓰므로 함께 조회 (open-in-view 꺼도 동작)
+    Optional<IngestionJob> findFirstByS3KeyOrderByIdDesc(String s3Key);
+
+    //S3 원본을 쓰는 작업이 있는지
+    boolean existsByS3Key(String s3Key);
+
+    //상태별 작업 목록 (오래된 순)
+    List<IngestionJob> findByStatusInOrderByIdAsc(Collection<IngestionStatus> statuses);
+
+    //여러 문서의 학습 작업 일괄 삭제
+    @Modifying
+    @Query("DELETE FROM IngestionJob j WHERE j.document.id IN :documentIds")
+    int deleteByDocumentIdIn(@Param("documentIds") Collection<Long> documentIds);
+}
@@ -0,0 +1,10 @@
+package com.rag.project.api.domain;
+
+//문서 학습(추출 -> 임베딩) 작업 상태
+public enum IngestionStatus {
+    QUEUED,     //대기 중
+    EXTRACTING, //텍스트 추출 중
+    EMBEDDING,  //벡터 변환 및 저장 중
+    READY,      //완료
+    FAILED      //실패
+}
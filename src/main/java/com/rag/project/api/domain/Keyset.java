@@ -0,0 +1,30 @@
+package com.rag.project.api.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 커서 페이지네이션 위치 (정렬 기준 시간 + id)
+ * - 클라이언트에는 Base64 문자열로 내려주고, 다음 요청에서 그대로 돌려받음
+ */
+public record Keyset(LocalDateTime at, Long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((at + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    //null/빈 문자열이면 첫 페이지 (null)
+    public static Keyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new Keyset(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.rag.project.api.domain;
+
+import java.security.Principal;
+
+/**
+ * 인증된 회원 정보 (JWT 인증 후 SecurityContext에 담기는 principal)
+ * - 컨트롤러는 @AuthenticationPrincipal MemberPrincipal 로 받음
+ * - getName()은 이메일 (Authentication.getName()과 같은 값)
+ */
+public record MemberPrincipal(Long memberId, String email, Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rag.project.api.domain;
+
+/**
+ * 문서 조각 검색 조건
+ *
+ * @param topK        가져올 최대 조각 수
+ * @param maxDistance 이 거리보다 먼 조각은 버림 (null: 제한 없음, 내적(<#>)은 음수 값 사용)
+ * @param metric      거리 계산 방식 (벡터 인덱스와 다르면 인덱스를 못 타고 전체 스캔)
+ */
+public record RetrievalOptions(Integer topK, Double maxDistance, DistanceMetric metric) {
+
+    //요청에서 빠진 값은 기본값으로 채움
+    public RetrievalOptions orElse(RetrievalOptions defaults) {
+        return new RetrievalOptions(
+                topK != null ? topK : defaults.topK(),
+                maxDistance != null ? maxDistance : defaults.maxDistance(),
+                metric != null ? metric : defaults.metric());
+    }
+}
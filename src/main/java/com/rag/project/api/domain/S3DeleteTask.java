@@ -0,0 +1,57 @@
+package com.rag.project.api.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * S3 원본 삭제 대기열
+ * - 문서 삭제 트랜잭션에서 같이 등록되고, 백그라운드 워커가 모아서 삭제 (실패하면 간격을 늘려가며 재시도)
+ * - DB에 저장되므로 서버가 재시작되어도 삭제가 이어짐
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "s3_delete_tasks", indexes = @Index(name = "idx_s3_delete_tasks_next_attempt", columnList = "next_attempt_at"))
+public class S3DeleteTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "task_id")
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String s3Key; //삭제할 S3 키
+
+    private int attempts; //실패한 횟수
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; //이 시각 이후에 (다시) 시도
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError; //마지막 실패 사유
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    @Builder
+    public S3DeleteTask(String s3Key) {
+        this.s3Key = s3Key;
+    }
+
+    public void markFailed(String error, LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
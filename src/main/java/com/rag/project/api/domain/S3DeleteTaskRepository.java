@@ -0,0 +1,16 @@
+package com.rag.project.api.domain;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface S3DeleteTaskRepository extends JpaRepository<S3DeleteTask, Long> {
+
+    //시도할 시각이 된 삭제 작업 (오래된 순, 재시도 횟수를 다 쓴 작업은 제외)
+    @Query("SELECT t FROM S3DeleteTask t WHERE t.nextAttemptAt <= :now AND t.attempts < :maxAttempts ORDER BY t.id")
+    List<S3DeleteTask> findDue(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Pageable pageable);
+}
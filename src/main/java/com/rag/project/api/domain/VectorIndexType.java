@@ -0,0 +1,8 @@
+package com.rag.project.api.domain;
+
+//document_embeddings.embedding_vector 에 만들 근사 최근접(ANN) 인덱스 종류
+public enum VectorIndexType {
+    HNSW,    //검색 품질/속도 우수, 생성 비용 큼
+    IVFFLAT, //생성 빠름, 데이터가 어느 정도 쌓인 뒤에 만들어야 품질이 나옴
+    NONE     //인덱스 없음 (전체 스캔)
+}
@@ -0,0 +1,10 @@
+package com.rag.project.api.dto;
+
+import java.time.LocalDateTime;
+
+public record ChatMessageResponse(
+        Long id,
+        String role,
+        String content,
+        LocalDateTime createdAt
+) {}
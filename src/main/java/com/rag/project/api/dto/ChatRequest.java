@@ -1,5 +1,16 @@
 package com.rag.project.api.dto;
 
+import com.rag.project.api.domain.DistanceMetric;
+import com.rag.project.api.domain.RetrievalOptions;
+
 public record ChatRequest(
-        String question
-) {}
+        String question,
+        Long conversationId,    //이어서 대화할 대화방 (없으면 새 대화방)
+        Integer topK,           //가져올 문서 조각 수 (없으면 서버 설정값)
+        Double maxDistance,     //이보다 먼 조각은 프롬프트에서 제외 (없으면 서버 설정값)
+        DistanceMetric metric   //L2, COSINE, INNER_PRODUCT (없으면 서버 설정값)
+) {
+    public RetrievalOptions retrievalOptions() {
+        return new RetrievalOptions(topK, maxDistance, metric);
+    }
+}
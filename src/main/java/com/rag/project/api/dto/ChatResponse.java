@@ -1,5 +1,6 @@
 package com.rag.project.api.dto;
 
 public record ChatResponse(
-        String answer
+        String answer,
+        Long conversationId
 ) {}
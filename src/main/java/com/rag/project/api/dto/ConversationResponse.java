@@ -0,0 +1,10 @@
+package com.rag.project.api.dto;
+
+import java.time.LocalDateTime;
+
+public record ConversationResponse(
+        Long conversationId,
+        String title,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {}
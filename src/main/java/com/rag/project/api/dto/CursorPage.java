@@ -0,0 +1,8 @@
+package com.rag.project.api.dto;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor   //다음 페이지 요청 시 cursor로 전달 (null: 마지막 페이지)
+) {}
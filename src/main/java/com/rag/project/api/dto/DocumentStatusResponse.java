@@ -0,0 +1,11 @@
+package com.rag.project.api.dto;
+
+public record DocumentStatusResponse(
+        Long documentId,
+        Long jobId,
+        String status,
+        String chunkingMode,
+        int totalChunks,
+        int embeddedChunks,
+        String errorMessage
+) {}
@@ -3,5 +3,8 @@ package com.rag.project.api.dto;
 public record DocumentUploadResponse(
         Long documentId,
         String originalFileName,
-        String s3FileUrl
+        String s3FileUrl,
+        Long jobId,
+        String status,
+        String chunkingMode
 ) {}
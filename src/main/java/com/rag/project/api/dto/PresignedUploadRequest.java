@@ -0,0 +1,6 @@
+package com.rag.project.api.dto;
+
+public record PresignedUploadRequest(
+        String fileName,    //원본 파일 이름
+        String contentType  //업로드할 때 같은 Content-Type 헤더를 보내야 함
+) {}
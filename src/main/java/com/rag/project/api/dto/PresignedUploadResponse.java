@@ -0,0 +1,9 @@
+package com.rag.project.api.dto;
+
+import java.time.Instant;
+
+public record PresignedUploadResponse(
+        String key,         //업로드 완료 요청 때 그대로 보냄
+        String uploadUrl,   //이 주소로 파일을 PUT
+        Instant expiresAt
+) {}
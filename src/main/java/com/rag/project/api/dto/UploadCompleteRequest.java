@@ -0,0 +1,10 @@
+package com.rag.project.api.dto;
+
+import com.rag.project.api.domain.ChunkingMode;
+
+public record UploadCompleteRequest(
+        String key,             //presigned URL 발급 때 받은 키
+        String fileName,
+        String contentType,
+        ChunkingMode chunking   //청킹 방식 (없으면 기본값)
+) {}
@@ -1,7 +1,9 @@
 package com.rag.project.api.filter;
 
-import com.rag.project.api.service.MemberService;
+import com.rag.project.api.component.PrincipalCache;
+import com.rag.project.api.domain.MemberPrincipal;
 import com.rag.project.api.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,19 +11,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil; //토큰 생성/검증
-    private final MemberService memberService;
+    private final PrincipalCache principalCache; //이메일 -> 회원 정보 (요청마다 DB 조회 방지)
 
     //실제 필터링 로직 수행 되는 곳
     @Override
@@ -37,22 +41,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         //Bearer 부분을 잘라내고 순수 토큰만 추출
         final String token = authHeader.substring(7);
-        //토큰 검증(유효기간, 서명)
-        if(!jwtUtil.validateToken(token)){
+        //토큰 검증(유효기간, 서명)과 클레임 추출을 한 번에
+        Optional<Claims> claims = jwtUtil.parseClaims(token);
+        if(claims.isEmpty()){
             filterChain.doFilter(request,response); //유효하지 않으면 다음 필터로
             return;
         }
         //토큰이 유효 -> 토큰에서 이메일을 추출
-        final String email = jwtUtil.getEmailToken(token);
+        final String email = claims.get().getSubject();
 
         //Spring Security에 이미 인증 정보 있는지 확인
         if(SecurityContextHolder.getContext().getAuthentication() == null){
-            //이메일을 이용해 DB에서 사용자 정보 가져옴
-            UserDetails userDetails = memberService.loadUserByUsername(email);
+            //토큰에 담긴 회원 id/권한 사용 (클레임이 없는 이전 토큰은 캐시 -> DB 조회)
+            Optional<MemberPrincipal> principal = jwtUtil.toPrincipal(claims.get())
+                    .or(() -> principalCache.get(email));
+            if(principal.isEmpty()){
+                filterChain.doFilter(request,response); //탈퇴 등으로 없는 회원
+                return;
+            }
 
-            //사용자 정보로 인증 토큰 생성
-            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails.getUsername(),
-                    null, userDetails.getAuthorities());
+            //회원 정보(id 포함)로 인증 토큰 생성
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal.get(),
+                    null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.get().role().name())));
 
             //요청 세부 정보를 인증 토큰에 추가
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
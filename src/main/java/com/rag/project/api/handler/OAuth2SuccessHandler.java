@@ -1,5 +1,7 @@
 package com.rag.project.api.handler;
 
+import com.rag.project.api.domain.Member;
+import com.rag.project.api.domain.MemberRepository;
 import com.rag.project.api.util.JwtUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     private final JwtUtil jwtUtil; //기존에 만든 JWT 발급 도구
+    private final MemberRepository memberRepository; //토큰에 넣을 회원 id 조회
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
@@ -30,8 +33,10 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         OAuth2User oAuth2User = (OAuth2User) authentication.getPrincipal();
         String email = oAuth2User.getAttribute("email");
 
-        //JWT토큰 생성
-        String accessToken = jwtUtil.createToken(email);
+        //JWT토큰 생성 (CustomOAuth2UserService가 저장한 회원)
+        Member member = memberRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("회원 없음"));
+        String accessToken = jwtUtil.createToken(member.getId(), member.getEmail(), member.getRole());
 
         log.info("구글 로그인 성공! 토큰 발급 완료: {}", email);
 
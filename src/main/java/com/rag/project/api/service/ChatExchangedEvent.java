@@ -0,0 +1,4 @@
+package com.rag.project.api.service;
+
+//질문과 답변이 대화 기록에 저장되었음을 알리는 이벤트 (커밋 후 대화 요약 갱신)
+public record ChatExchangedEvent(Long conversationId) {}
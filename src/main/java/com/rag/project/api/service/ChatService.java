@@ -1,18 +1,34 @@
 package com.rag.project.api.service;
 
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.PromptContextBuilder;
+import com.rag.project.api.component.SemanticAnswerCache;
+import com.rag.project.api.component.TokenCounter;
 import com.rag.project.api.domain.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; //로그 기능 추가
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.StreamingChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -22,9 +38,50 @@ public class ChatService {
     private final EmbeddingService embeddingService;
     private final DocumentEmbeddingRepository embeddingRepository;
     private final ChatModel chatModel; //GPT에게 질문 (Spring AI가 자동 주입)
+    private final StreamingChatModel streamingChatModel; //토큰 단위 스트리밍 답변용
 
     private final ChatHistoryRepository chatHistoryRepository; // 대화 기록 저장소
     private final MemberRepository memberRepository; // 회원 정보 조회용
+    private final PromptContextBuilder promptContextBuilder; //토큰 예산 안에서 문서/대화 기록 구성
+    private final SemanticAnswerCache answerCache; //비슷한 질문의 이전 답변 재사용
+    private final ModelGateway modelGateway; //모델 호출 속도/동시 호출 수 제한, 재시도
+    private final TokenCounter tokenCounter;
+    private final ConversationSummaryRepository summaryRepository; //오래된 대화 요약
+    private final ConversationRepository conversationRepository;
+    private final ConversationService conversationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    //벡터 검색에 키워드(전문) 검색을 합칠지
+    @Value("${rag.retrieval.hybrid.enabled:false}")
+    private boolean hybridSearch;
+
+    //기본 검색 조각 수 / 요청으로 늘릴 수 있는 최대 조각 수
+    @Value("${rag.retrieval.top-k:5}")
+    private int defaultTopK;
+
+    @Value("${rag.retrieval.max-top-k:20}")
+    private int maxTopK;
+
+    //기본 기준 거리 (비워두면 제한 없음)
+    @Value("${rag.retrieval.max-distance:#{null}}")
+    private Double defaultMaxDistance;
+
+    //기본 거리 계산 방식 (벡터 인덱스와 같은 설정값)
+    @Value("${rag.retrieval.metric:L2}")
+    private DistanceMetric defaultMetric;
+
+    //답변 예상 토큰 수 (모델 요청 한도 계산용)
+    @Value("${rag.model.chat.expected-output-tokens:500}")
+    private int expectedOutputTokens;
+
+    //프롬프트에 그대로 넣는 최근 대화 수 (그보다 오래된 대화는 요약으로 대신함)
+    @Value("${rag.chat.history.recent-messages:4}")
+    private int recentMessages;
+
+    //요약이 아직 따라오지 못한 대화까지 포함해서 프롬프트에 넣을 최대 대화 수 (분량은 PromptContextBuilder가 토큰 예산으로 자름)
+    @Value("${rag.chat.history.max-unsummarized-messages:24}")
+    private int maxUnsummarizedMessages;
 
     //프롬프트 템플릿
     private static final String RAG_PROMPT_TEMPLATE = """
@@ -69,66 +126,208 @@ public class ChatService {
             {question}
             """;
 
-    @Transactional
-    public String chat(String question, String memberEmail){
+    /**
+     * 질문에 답변하고 대화 기록에 저장
+     * - 트랜잭션은 조회(짧은 읽기 전용)와 저장에만 걸고, 임베딩/모델 호출 동안에는 DB 커넥션을 잡지 않음
+     */
+    public String chat(String question, Long memberId, Long conversationId, RetrievalOptions options){
+        Turn turn = prepare(question, memberId, conversationId, options);
+
+        //비슷한 질문에 대한 답변이 캐시에 있으면 검색/모델 호출 생략
+        if (turn.cached().isPresent()) {
+            saveExchange(turn.member(), turn.conversation(), question, turn.cached().get());
+            return turn.cached().get();
+        }
+        long startedAt = System.nanoTime();
+
+        //AI 답변 받기 (트랜잭션 밖)
+        String answer = modelGateway.call(ModelGateway.Model.CHAT, estimateTokens(turn.prompt()),
+                () -> chatModel.call(turn.prompt()).getResult().getOutput().getContent());
+        if (turn.history().firstTurn()) {
+            answerCache.put(memberId, turn.generation(), turn.questionVector(), turn.options(), answer,
+                    System.nanoTime() - startedAt);
+        }
+
+        //이번 대화를 DB에 저장
+        saveExchange(turn.member(), turn.conversation(), question, answer);
+
+        return answer;
+    }
+
+    /**
+     * 답변을 토큰 단위로 스트리밍
+     * - 검색/프롬프트 생성은 호출 시점에 끝내고, 생성은 구독한 쪽(SSE)에서 진행
+     * - 스트림이 정상 종료되면 질문과 전체 답변을 대화 기록에 저장
+     */
+    public Flux<String> streamChat(String question, Long memberId, Long conversationId, RetrievalOptions options){
+        Turn turn = prepare(question, memberId, conversationId, options);
+
+        //캐시 적중 시 저장된 답변을 한 번에 보냄
+        if (turn.cached().isPresent()) {
+            return Flux.just(turn.cached().get())
+                    .doOnComplete(() -> saveExchange(turn.member(), turn.conversation(), question, turn.cached().get()));
+        }
+        long startedAt = System.nanoTime();
+        Prompt prompt = turn.prompt();
+
+        StringBuilder answer = new StringBuilder();
+        //구독 시점에 차례를 얻고, 스트림이 끝나거나 취소되면 반납 (이미 보낸 토큰이 있으므로 재시도 없음)
+        //클라이언트가 끊어서 취소된 스트림은 성공으로 세지 않음 (동시 호출 한도가 잘못 늘어나지 않도록)
+        return Flux.defer(() -> {
+                    ModelGateway.Permit permit = modelGateway.admit(ModelGateway.Model.CHAT, estimateTokens(prompt));
+                    return streamingChatModel.stream(prompt)
+                            .doOnError(permit::complete)
+                            .doFinally(signal -> {
+                                if (signal == SignalType.CANCEL) {
+                                    permit.cancel();
+                                } else {
+                                    permit.complete(null);
+                                }
+                            });
+                })
+                .mapNotNull(ChatService::tokenOf)
+                .doOnNext(answer::append)
+                .doOnComplete(() -> {
+                    saveExchange(turn.member(), turn.conversation(), question, answer.toString());
+                    if (turn.history().firstTurn()) {
+                        answerCache.put(memberId, turn.generation(), turn.questionVector(), turn.options(),
+                                answer.toString(), System.nanoTime() - startedAt);
+                    }
+                });
+    }
 
-        //회원 정보 조회
-        Member member = memberRepository.findByEmail(memberEmail)
-                .orElseThrow(() -> new IllegalArgumentException("회원 없음"));
+    /**
+     * 모델 호출 전 준비: 질문 임베딩(트랜잭션 밖) -> 대화방 확인, 대화 기록, 캐시 조회, 문서 검색(짧은 읽기 전용 트랜잭션)
+     */
+    private Turn prepare(String question, Long memberId, Long conversationId, RetrievalOptions options){
+        RetrievalOptions resolved = resolveOptions(options);
         //사용자 질문을 벡터로 변환
         float[] questionVector = embeddingService.getEmbedding(question);
 
-        //DB에서 질문과 가장 유사한 문서 조각 5개 검색
-        List<DocumentEmbedding> similarChunks = embeddingRepository.findNearest(questionVector, member.getId());
+        return readOnly(status -> {
+            //회원 참조 (토큰의 회원 id로 프록시만 만들고 조회하지 않음)
+            Member member = memberRepository.getReferenceById(memberId);
+            Conversation conversation = conversationService.getOwnedConversation(conversationId, memberId);
+            History history = loadHistory(conversation);
 
-        //검색된 문서 조각들의 텍스트만 뽑아서 하나로 합침
-        String context = similarChunks.stream()
-                .map(chunk -> String.format("[출처: %s]\n%s",
-                        chunk.getFileName() != null ? chunk.getFileName() : "Unknown",
-                        chunk.getTextSegment()))
-                .collect(Collectors.joining("\n\n"));
+            //캐시는 이전 대화가 없는 질문만 사용
+            Optional<String> cached = history.firstTurn()
+                    ? answerCache.get(memberId, questionVector, resolved)
+                    : Optional.empty();
+            long generation = answerCache.generation(memberId);
 
-        //이전 대화 기록 가져오기
-        //최근 10개 가져와서, 시간 역순으로 정렬하고 문자열로 합침
-        List<ChatHistory> histories = chatHistoryRepository.findRecentChats(member.getId());
-        Collections.reverse(histories); //최신순으로 가져왔으니 다시 과거순으로 뒤집음
+            //문서 검색 + 대화 기록으로 프롬프트 생성
+            Prompt prompt = cached.isPresent() ? null : buildPrompt(member, question, questionVector, resolved, history);
+            return new Turn(member, conversation, resolved, questionVector, history, cached, generation, prompt);
+        });
+    }
+
+    private <T> T readOnly(TransactionCallback<T> action){
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(action);
+    }
+
+    /**
+     * 회원의 문서가 바뀌면 그 회원의 답변 캐시를 비움 (커밋 후, 트랜잭션 밖에서 발행된 경우 바로)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event){
+        answerCache.invalidate(event.memberId());
+    }
+
+    //스트리밍 응답 조각에서 텍스트 토큰만 꺼냄 (마지막 조각 등은 내용이 없을 수 있음)
+    private static String tokenOf(ChatResponse response){
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        String token = response.getResult().getOutput().getContent();
+        return token == null || token.isEmpty() ? null : token;
+    }
+
+    /**
+     * 이전 대화 기록 가져오기
+     * - 요약에 반영된 대화는 요약으로, 그 뒤의 대화는 모두 그대로 (최신순으로 가져왔으니 다시 과거순으로 뒤집음)
+     * - 요약은 최근 대화보다 오래된 대화가 min-messages개 쌓여야 갱신되므로, 그 사이의 대화도 빠지지 않도록 함
+     * - 답변이 대화 맥락에 따라 달라지므로, 기록이 있는 대화의 질문은 답변 캐시를 쓰지 않음
+     */
+    History loadHistory(Conversation conversation){
+        Optional<ConversationSummary> stored = summaryRepository.findByConversationId(conversation.getId());
+        String summary = stored.map(ConversationSummary::getSummary).orElse("");
+        long lastChatId = stored.map(ConversationSummary::getLastChatId).orElse(0L);
+        List<ChatHistory> recent = recentMessages > 0
+                ? new ArrayList<>(chatHistoryRepository.findChatsAfter(conversation.getId(), lastChatId,
+                        PageRequest.ofSize(Math.max(recentMessages, maxUnsummarizedMessages))))
+                : new ArrayList<>();
+        Collections.reverse(recent);
+        //최근 대화를 프롬프트에 넣지 않는 설정이어도 기록 유무는 확인
+        boolean firstTurn = summary.isBlank() && recent.isEmpty()
+                && (recentMessages > 0 || !chatHistoryRepository.existsByConversationId(conversation.getId()));
+        return new History(summary, recent, firstTurn);
+    }
 
-        String historyText = histories.stream()
-                        .map(h -> h.getRole() + ": " + h.getContent())
-                                .collect(Collectors.joining("\n"));
+    //문서 검색 결과와 이전 대화 기록으로 프롬프트 생성
+    private Prompt buildPrompt(Member member, String question, float[] questionVector,
+                               RetrievalOptions options, History history){
+        //DB에서 질문과 가장 유사한 문서 조각 topK개 검색 (하이브리드: 키워드 일치도 함께 반영)
+        List<DocumentEmbedding> similarChunks = hybridSearch
+                ? embeddingRepository.findHybrid(questionVector, question, member.getId(), options)
+                : embeddingRepository.findNearest(questionVector, member.getId(), options);
+        log.debug("검색된 문서 조각 {}개 (topK={}, maxDistance={}, metric={})",
+                similarChunks.size(), options.topK(), options.maxDistance(), options.metric());
+
+        //토큰 예산 안에서 문서 조각(순위순)과 대화 기록(요약 + 최신순)을 채움
+        PromptContextBuilder.PromptContext promptContext =
+                promptContextBuilder.build(similarChunks, history.summary(), history.recent());
 
         //프롬프트 생성
         PromptTemplate promptTemplate = new PromptTemplate(RAG_PROMPT_TEMPLATE);
-        Prompt prompt = promptTemplate.create(Map.of(
-                "context", context,
+        return promptTemplate.create(Map.of(
+                "context", promptContext.context(),
                 "question", question,
-                "history", historyText
+                "history", promptContext.history()
         ));
+    }
 
-        //AI 답변 받기
-        String answer = chatModel.call(prompt).getResult().getOutput().getContent();
-
-        //이번 대화를 DB에 저장
-        chatHistoryRepository.save(ChatHistory.builder()
-                .member(member)
-                .role("user")
-                .content(question)
-                .build());
-
-        //AI 답변 저장
-        chatHistoryRepository.save(ChatHistory.builder()
-                .member(member)
-                .role("assistant")
-                .content(answer)
-                .build());
+    //TPM 계산용 토큰 수 (프롬프트 + 예상 답변)
+    private int estimateTokens(Prompt prompt){
+        return tokenCounter.count(prompt.getContents()) + expectedOutputTokens;
+    }
 
-        return answer;
-        //log.info("검색된 관련 문서 조각 개수: {}", similarChunks.size());
-        //log.info("참조한 문서 내용: {}", context); // (디버깅용)
+    //요청값이 없으면 서버 설정값, topK는 1 ~ maxTopK 범위로 제한
+    private RetrievalOptions resolveOptions(RetrievalOptions requested){
+        RetrievalOptions defaults = new RetrievalOptions(defaultTopK, defaultMaxDistance, defaultMetric);
+        RetrievalOptions options = requested != null ? requested.orElse(defaults) : defaults;
+        int topK = Math.min(Math.max(options.topK(), 1), maxTopK);
+        return new RetrievalOptions(topK, options.maxDistance(), options.metric());
+    }
 
+    //질문과 AI 답변을 대화 기록에 저장 (자체 트랜잭션)
+    private void saveExchange(Member member, Conversation conversation, String question, String answer){
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            chatHistoryRepository.saveAll(List.of(
+                    ChatHistory.builder()
+                            .member(member)
+                            .conversation(conversation)
+                            .role("user")
+                            .content(question)
+                            .build(),
+                    ChatHistory.builder()
+                            .member(member)
+                            .conversation(conversation)
+                            .role("assistant")
+                            .content(answer)
+                            .build()));
+            conversationRepository.touch(conversation.getId(), LocalDateTime.now());
+            //커밋 후 오래된 대화를 요약에 반영 (백그라운드)
+            eventPublisher.publishEvent(new ChatExchangedEvent(conversation.getId()));
+        });
+    }
 
+    //프롬프트에 넣을 이전 대화 (요약 + 최근 대화), firstTurn: 대화방의 첫 질문 (답변 캐시 사용 가능)
+    record History(String summary, List<ChatHistory> recent, boolean firstTurn){}
 
-        //GPT에게 최종 질문하고 답변
-        //return chatModel.call(prompt).getResult().getOutput().getContent();
-    }
+    //모델 호출 전에 준비한 값 (cached가 있으면 prompt는 null)
+    private record Turn(Member member, Conversation conversation, RetrievalOptions options, float[] questionVector,
+                        History history, Optional<String> cached, long generation, Prompt prompt){}
 }
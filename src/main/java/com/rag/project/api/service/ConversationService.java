@@ -0,0 +1,111 @@
+package com.rag.project.api.service;
+
+import com.rag.project.api.domain.*;
+import com.rag.project.api.dto.ChatMessageResponse;
+import com.rag.project.api.dto.ConversationResponse;
+import com.rag.project.api.dto.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 대화방 생성/조회
+ * - 목록은 OFFSET 대신 커서(마지막 항목의 시간 + id)로 페이지를 나눠서, 기록이 많아도 페이지 크기만큼만 읽음
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationService {
+
+    //대화방 제목으로 쓸 첫 질문 최대 길이
+    private static final int TITLE_LENGTH = 50;
+
+    private final ConversationRepository conversationRepository;
+    private final ChatHistoryRepository chatHistoryRepository;
+    private final MemberRepository memberRepository;
+
+    //한 페이지 최대 크기
+    @Value("${rag.chat.page.max-size:100}")
+    private int maxPageSize;
+
+    /**
+     * 대화방 id가 없으면 새로 만들고, 있으면 본인 대화방인지 확인
+     *
+     * @return 대화방 id
+     */
+    @Transactional
+    public Long openConversation(Long memberId, Long conversationId, String firstQuestion) {
+        if (conversationId != null) {
+            return getOwnedConversation(conversationId, memberId).getId();
+        }
+        String title = firstQuestion == null ? "" : firstQuestion.strip();
+        if (title.length() > TITLE_LENGTH) {
+            title = title.substring(0, TITLE_LENGTH);
+        }
+        return conversationRepository.save(Conversation.builder()
+                .member(memberRepository.getReferenceById(memberId))
+                .title(title.isEmpty() ? "새 대화" : title)
+                .build()).getId();
+    }
+
+    //회원 본인의 대화방 조회
+    @Transactional(readOnly = true)
+    public Conversation getOwnedConversation(Long conversationId, Long memberId) {
+        Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new IllegalArgumentException("대화방이 존재하지 않습니다."));
+        if (!conversation.isOwnedBy(memberId)) {
+            throw new IllegalArgumentException("이 대화방에 접근할 권한이 없습니다.");
+        }
+        return conversation;
+    }
+
+    /**
+     * 대화방 목록 (최근 대화순)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationResponse> getConversations(Long memberId, String cursor, int size) {
+        Keyset after = Keyset.decode(cursor);
+        PageRequest page = PageRequest.ofSize(pageSize(size) + 1); //다음 페이지가 있는지 보려고 하나 더 읽음
+
+        List<Conversation> rows = after == null
+                ? conversationRepository.findPage(memberId, page)
+                : conversationRepository.findPageAfter(memberId, after.at(), after.id(), page);
+
+        List<Conversation> items = rows.subList(0, Math.min(rows.size(), pageSize(size)));
+        String nextCursor = rows.size() > items.size()
+                ? new Keyset(items.get(items.size() - 1).getUpdatedAt(), items.get(items.size() - 1).getId()).encode()
+                : null;
+        return new CursorPage<>(items.stream()
+                .map(c -> new ConversationResponse(c.getId(), c.getTitle(), c.getCreatedAt(), c.getUpdatedAt()))
+                .toList(), nextCursor);
+    }
+
+    /**
+     * 대화방의 메시지 (최신순)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ChatMessageResponse> getMessages(Long memberId, Long conversationId, String cursor, int size) {
+        getOwnedConversation(conversationId, memberId);
+        Keyset before = Keyset.decode(cursor);
+        PageRequest page = PageRequest.ofSize(pageSize(size) + 1);
+
+        List<ChatHistory> rows = before == null
+                ? chatHistoryRepository.findRecentChats(conversationId, page)
+                : chatHistoryRepository.findChatsBefore(conversationId, before.at(), before.id(), page);
+
+        List<ChatHistory> items = rows.subList(0, Math.min(rows.size(), pageSize(size)));
+        String nextCursor = rows.size() > items.size()
+                ? new Keyset(items.get(items.size() - 1).getCreatedAt(), items.get(items.size() - 1).getId()).encode()
+                : null;
+        return new CursorPage<>(items.stream()
+                .map(h -> new ChatMessageResponse(h.getId(), h.getRole(), h.getContent(), h.getCreatedAt()))
+                .toList(), nextCursor);
+    }
+
+    private int pageSize(int size) {
+        return Math.min(Math.max(size, 1), maxPageSize);
+    }
+}
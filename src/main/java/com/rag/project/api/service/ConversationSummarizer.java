@@ -0,0 +1,165 @@
+package com.rag.project.api.service;
+
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChatHistory;
+import com.rag.project.api.domain.ChatHistoryRepository;
+import com.rag.project.api.domain.ConversationSummary;
+import com.rag.project.api.domain.ConversationSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 대화방별 이전 대화 요약 백그라운드 갱신
+ * - 대화가 저장될 때마다, 최근 대화(recent-messages개)보다 오래된 대화를 기존 요약에 접어 넣음
+ * - 아직 접어 넣지 않은 대화는 ChatService가 프롬프트에 그대로 넣음 (요약이 늦어도 빠지는 대화 없음)
+ * - 모델 호출은 요청 스레드가 아닌 요약 전용 워커에서 실행 (응답 시간에 영향 없음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConversationSummarizer {
+
+    private final ChatHistoryRepository chatHistoryRepository;
+    private final ConversationSummaryRepository summaryRepository;
+    private final ChatModel chatModel;
+    private final ModelGateway modelGateway; //채팅과 같은 모델 요청 한도를 나눠 씀
+    private final TokenCounter tokenCounter;
+    private final ThreadPoolTaskExecutor summaryExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    //요약 중인 대화방 (같은 대화방의 요약이 동시에 돌지 않도록)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    //프롬프트에 그대로 넣는 최근 대화 수 (이보다 오래된 대화만 요약)
+    @Value("${rag.chat.history.recent-messages:4}")
+    private int recentMessages;
+
+    //이만큼 쌓여야 요약 (모델 호출 횟수 줄이기)
+    @Value("${rag.chat.summary.min-messages:4}")
+    private int minMessages;
+
+    //한 번에 요약에 접어 넣을 최대 대화 수
+    @Value("${rag.chat.summary.batch-messages:20}")
+    private int batchMessages;
+
+    //요약 최대 토큰 수
+    @Value("${rag.chat.summary.max-tokens:400}")
+    private int maxSummaryTokens;
+
+    //요약에 넣을 대화 메시지 하나의 최대 토큰 수
+    @Value("${rag.chat.summary.max-message-tokens:500}")
+    private int maxMessageTokens;
+
+    private static final String SUMMARY_PROMPT_TEMPLATE = """
+            다음은 사용자와 AI 문서 분석 도우미의 이전 대화 요약과, 그 뒤에 이어진 대화입니다.
+            두 내용을 합쳐서 새 요약을 한국어로 작성하세요.
+            
+            - 사용자가 알려준 자기 정보, 질문한 주제, 답변의 핵심 사실(수치, 날짜, 파일명)을 남기세요.
+            - 인사나 반복되는 표현은 빼세요.
+            - {maxTokens} 토큰 이내의 한 문단으로 작성하세요.
+            
+            [이전 요약]
+            {summary}
+            
+            [이어진 대화]
+            {messages}
+            """;
+
+    //대화 저장 트랜잭션이 커밋된 뒤에 요약 워커에 전달
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChatExchanged(ChatExchangedEvent event) {
+        submit(event.conversationId());
+    }
+
+    private void submit(Long conversationId) {
+        if (!inFlight.add(conversationId)) {
+            return; //이미 요약 중 (남은 대화는 다음 대화 때 반영)
+        }
+        try {
+            summaryExecutor.execute(() -> {
+                try {
+                    summarize(conversationId);
+                } catch (Exception e) {
+                    log.warn("대화 요약 실패: conversationId={}, {}", conversationId, e.getMessage());
+                } finally {
+                    inFlight.remove(conversationId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(conversationId);
+            log.debug("요약 대기열이 가득 참, 다음 대화 때 재시도: conversationId={}", conversationId);
+        }
+    }
+
+    //최근 대화보다 오래됐고 아직 요약에 없는 대화를 배치 단위로 접어 넣음
+    void summarize(Long conversationId) {
+        if (recentMessages <= 0) {
+            return;
+        }
+        List<ChatHistory> recent = chatHistoryRepository.findRecentChats(conversationId, PageRequest.ofSize(recentMessages));
+        if (recent.size() < recentMessages) {
+            return; //최근 대화만으로 다 들어감
+        }
+        long beforeId = recent.stream().mapToLong(ChatHistory::getId).min().orElseThrow();
+
+        ConversationSummary current = summaryRepository.findByConversationId(conversationId).orElse(null);
+        String summary = current != null ? current.getSummary() : "";
+        long afterId = current != null && current.getLastChatId() != null ? current.getLastChatId() : 0L;
+
+        while (true) {
+            List<ChatHistory> pending = chatHistoryRepository.findChatsBetween(conversationId, afterId, beforeId,
+                    PageRequest.ofSize(batchMessages));
+            if (pending.size() < minMessages) {
+                return;
+            }
+            summary = fold(summary, pending);
+            afterId = pending.get(pending.size() - 1).getId();
+            save(conversationId, summary, afterId);
+            log.info("대화 요약 갱신: conversationId={}, 대화 {}개 반영, 요약 {}토큰",
+                    conversationId, pending.size(), tokenCounter.count(summary));
+        }
+    }
+
+    //기존 요약 + 새 대화 -> 새 요약 (모델 호출)
+    private String fold(String summary, List<ChatHistory> messages) {
+        String messageText = messages.stream()
+                .map(h -> h.getRole() + ": " + tokenCounter.truncate(h.getContent(), maxMessageTokens))
+                .collect(Collectors.joining("\n"));
+        PromptTemplate promptTemplate = new PromptTemplate(SUMMARY_PROMPT_TEMPLATE);
+        Prompt prompt = promptTemplate.create(Map.of(
+                "summary", summary.isEmpty() ? "(없음)" : summary,
+                "messages", messageText,
+                "maxTokens", maxSummaryTokens
+        ));
+        String updated = modelGateway.call(ModelGateway.Model.CHAT,
+                tokenCounter.count(prompt.getContents()) + maxSummaryTokens,
+                () -> chatModel.call(prompt).getResult().getOutput().getContent());
+        //모델이 길게 써도 프롬프트 크기는 유지
+        return tokenCounter.truncate(updated == null ? summary : updated.strip(), maxSummaryTokens);
+    }
+
+    private void save(Long conversationId, String summary, long lastChatId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ConversationSummary entity = summaryRepository.findByConversationId(conversationId)
+                    .orElseGet(() -> summaryRepository.save(ConversationSummary.builder().conversationId(conversationId).build()));
+            entity.update(summary, lastChatId);
+        });
+    }
+}
@@ -1,20 +1,29 @@
 package com.rag.project.api.service;
 
-import com.rag.project.api.component.FileHandler;
+import com.rag.project.api.component.FileFormat;
+import com.rag.project.api.component.StagedUploads;
+import com.rag.project.api.component.chunking.ChunkingStrategies;
 import com.rag.project.api.domain.*;
+import com.rag.project.api.dto.PresignedUploadResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
 // Apache POI (Word, PPT) 관련 import
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
@@ -26,11 +35,16 @@ import org.apache.poi.xslf.usermodel.XSLFTextShape;
 
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j //로그 찍기 위한 롬복
@@ -38,124 +52,381 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DocumentService {
 
+    //presigned 업로드 임시 경로 (등록되지 않은 파일은 버킷 만료 규칙으로 정리)
+    private static final String UPLOAD_PREFIX = "uploads/";
+    //등록된 직접 업로드 원본의 영구 경로
+    private static final String ORIGINAL_PREFIX = "originals/";
+
     //S3 통신 동구
     private final S3Client s3Client;
     //테이블 관리자(Document)
     private final DocumentRepository documentRepository;
     //테이블 관리자(Member)
     private final MemberRepository memberRepository;
-    private final EmbeddingService embeddingService;          // 벡터 변환기
-    private final DocumentEmbeddingRepository embeddingRepository; // 벡터 DB 관리자
-    private final FileHandler fileHandler;
+    private final ChunkingStrategies chunkingStrategies;
+    private final IngestionJobRepository ingestionJobRepository; // 학습 작업 관리자
+    private final DocumentEmbeddingRepository embeddingRepository; // 중복 파일의 벡터 복사용
+    private final ApplicationEventPublisher eventPublisher;
+    private final StagedUploads stagedUploads; //업로드 원본 임시 보관 + 백그라운드 S3 업로드
+    private final S3Presigner s3Presigner; //직접 업로드용 URL 발급
+    private final S3CleanupService s3CleanupService; //S3 원본 삭제 대기열
+    private final TransactionTemplate transactionTemplate;
 
     //yml에 등록한 S3 버킷 이름
     @Value("${aws.s3.bucket}")
     private String bucket;
 
+    //한 번에 삭제할 수 있는 최대 문서 수
+    @Value("${rag.documents.max-bulk-delete:100}")
+    private int maxBulkDelete;
+
+    //presigned 업로드 URL 유효 시간
+    @Value("${rag.upload.presign-expiry-minutes:15}")
+    private long presignExpiryMinutes;
+
+    //presigned 업로드로 받을 수 있는 최대 파일 크기
+    @Value("${rag.upload.max-size-mb:500}")
+    private long maxUploadSizeMb;
+
     /**
-     * 파일을 S3에 업로드하고, 그 메타데이터를 DB에 저장합니다.
+     * 파일을 S3에 업로드하고, 그 메타데이터와 학습 작업을 DB에 저장합니다.
+     * - S3 업로드는 백그라운드로 진행되고, 요청은 업로드 완료를 기다리지 않습니다.
+     * - 텍스트 추출, 청킹, 임베딩은 커밋 후 백그라운드 워커가 처리합니다.
      *
      * @param file        업로드할 파일
-     * @param memberEmail 업로드한 회원 (JWT 토큰에서 추출한)
-     * @return DB에 저장된 Document 객체
+     * @param memberId    업로드한 회원 (JWT 토큰에서 추출한)
+     * @param chunking    청킹 방식 (null: 기본값)
+     * @return DB에 저장된 학습 작업 (문서 포함)
      * @throws IOException
      */
     @Transactional
-    public Document uploadDocument(MultipartFile file, String memberEmail) throws IOException {
+    public IngestionJob uploadDocument(MultipartFile file, Long memberId, ChunkingMode chunking) throws IOException {
 
-        //memberEmail로 Member 엔티티를 찾음(회원 조회)
-        Member member = memberRepository.findByEmail(memberEmail)
-                .orElseThrow(() -> new IllegalArgumentException("해당 회원을 찾을 수 없습니다: " + memberEmail));
+        //회원 참조 (토큰의 회원 id로 프록시만 만들고 조회하지 않음)
+        Member member = memberRepository.getReferenceById(memberId);
 
-        //텍스트 추출
-        String extractedText = fileHandler.extractText(file);
+        //지원하지 않는 형식은 업로드 전에 거름 (텍스트 추출은 워커가 하므로)
+        String originalFileName = file.getOriginalFilename();
+        FileFormat format = FileFormat.of(originalFileName, file.getContentType());
+        if (format == null) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + file.getContentType());
+        }
+        ChunkingMode chunkingMode = chunkingStrategies.resolve(chunking, format);
 
-        //null byte 제거
-        String cleanText = fileHandler.sanitizeText(extractedText);
+        //원본을 임시 파일로 한 번만 읽으면서 내용 해시 계산 (같은 파일 재업로드 확인)
+        StagedUploads.StagedFile staged;
+        try (InputStream in = file.getInputStream()) {
+            staged = stagedUploads.stage(in);
+        }
+        String contentHash = staged.contentHash();
 
-        log.info("파일 텍스트 추출 완료! 길이: {} 자", extractedText.length());
+        try {
+            //같은 회원이 같은 파일을 이미 올렸으면 기존 작업을 그대로 돌려줌 (실패했거나 청킹 방식이 바뀐 경우만 다시 실행)
+            Optional<IngestionJob> existing = documentRepository.findFirstByMemberIdAndContentHashOrderByIdDesc(member.getId(), contentHash)
+                    .flatMap(document -> ingestionJobRepository.findFirstByDocumentIdOrderByIdDesc(document.getId()));
+            if (existing.isPresent()) {
+                IngestionJob job = existing.get();
+                log.info("이미 업로드된 파일: documentId={}, status={}", job.getDocument().getId(), job.getStatus());
+                boolean rechunk = job.isFinished() && job.getChunkingMode() != chunkingMode;
+                if (job.getStatus() == IngestionStatus.FAILED || rechunk) {
+                    //이전 업로드가 실패해서 원본이 없으면 이번에 받은 파일로 다시 업로드
+                    ensureOriginal(staged, job.getS3Key(), file.getContentType());
+                    embeddingRepository.deleteByDocumentId(job.getDocument().getId());
+                    job.rechunk(chunkingMode);
+                    eventPublisher.publishEvent(new IngestionRequestedEvent(job.getId()));
+                    eventPublisher.publishEvent(new DocumentsChangedEvent(member.getId()));
+                }
+                return job;
+            }
 
-        //log.info("추출된 텍스트일부(앞 100자): {}", extractedText.substring(0, Math.min(extractedText.length(), 100)));
-        //s3에 저장할 파일 이름 생성(중복 방지)
-        String originalFileName = file.getOriginalFilename();
-        String s3FileName = UUID.randomUUID().toString() + "-" + originalFileName;
-
-        //S3에 올릴 파일에 대한 요청 객체 생성
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucket)
-                .key(s3FileName)
-                .contentType(file.getContentType())
-                .contentLength(file.getSize())
-                .build();
-
-        //s3에 파일 업로드
-        log.info("S3에 파일 업로드 시작: {}", s3FileName);
-        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        log.info("S3에 파일 업로드 완료");
-
-        //S3에 저장된 파일의 Url 가져오기
-        String s3FileUrl = s3Client.utilities().getUrl(GetUrlRequest.builder()
-                .bucket(bucket)
-                .key(s3FileName)
-                .build()).toString();
-
-        //DB에 저장할 Document 엔티티 생성
-        Document document = Document.builder()
-                .originalFileName(originalFileName)
-                .s3FileUrl(s3FileUrl).member(member)
-                .build();
-
-        //DB 저장 후, 변수에 담기, 바로 return X, 변수에 담아둠
-        Document savedDocument = documentRepository.save(document);
-
-        //RAG 파이프라인: 텍스트 쪼개기 & 벡터 저장
-        if (cleanText != null && !cleanText.isBlank()) {
-            //텍스트 쪼개기
-            List<String> chunks = fileHandler.splitTextIntoChunks(cleanText);
-
-            for (String chunk : chunks) {
-                //청크 후, 한번 더 안전하게 처리해주면 좋음
-                String cleanSegment = fileHandler.sanitizeText(chunk);
-                //각 조각을 벡터로 변환
-                float[] vector = embeddingService.getEmbedding(cleanSegment);
-
-                //DocumentEmbedding 엔티티 생성 및 저장
-                DocumentEmbedding embeddingEntity = DocumentEmbedding.builder()
-                        .document(savedDocument)
-                        .textSegment(cleanSegment) //DB에 깨끗한 텍스트 저장
-                        .embeddingVector(vector).build();
-
-                embeddingRepository.save(embeddingEntity);
+            //다른 회원이 같은 파일을 올렸으면 S3 원본을 공유하고, 학습이 끝났으면 벡터도 복사
+            Optional<Document> sharedSource = documentRepository.findFirstByContentHashOrderByIdAsc(contentHash);
+            Optional<IngestionJob> sourceJob = sharedSource
+                    .flatMap(document -> ingestionJobRepository.findFirstByDocumentIdOrderByIdDesc(document.getId()));
+
+            String s3FileName;
+            String s3FileUrl;
+            if (sourceJob.isPresent()) {
+                s3FileName = sourceJob.get().getS3Key();
+                s3FileUrl = sharedSource.get().getS3FileUrl();
+                log.info("같은 내용의 S3 원본 재사용: {}", s3FileName);
+                ensureOriginal(staged, s3FileName, file.getContentType());
+            } else {
+                //s3에 저장할 파일 이름 생성(중복 방지)
+                s3FileName = UUID.randomUUID().toString() + "-" + originalFileName;
+
+                //s3에 파일 업로드 (백그라운드 멀티파트, 워커는 업로드 완료를 기다리지 않고 임시 파일로 학습 시작)
+                stagedUploads.upload(staged, s3FileName, file.getContentType());
+
+                //S3에 저장된 파일의 Url 가져오기
+                s3FileUrl = s3Client.utilities().getUrl(GetUrlRequest.builder()
+                        .bucket(bucket)
+                        .key(s3FileName)
+                        .build()).toString();
+            }
+
+            //DB에 저장할 Document 엔티티 생성
+            Document document = Document.builder()
+                    .originalFileName(originalFileName)
+                    .s3FileUrl(s3FileUrl)
+                    .contentHash(contentHash)
+                    .member(member)
+                    .build();
+
+            //DB 저장 후, 변수에 담기, 바로 return X, 변수에 담아둠
+            Document savedDocument = documentRepository.save(document);
+
+            //학습 작업 등록 (커밋 후 워커에 전달)
+            IngestionJob job = ingestionJobRepository.save(IngestionJob.builder()
+                    .document(savedDocument)
+                    .s3Key(s3FileName)
+                    .contentType(file.getContentType())
+                    .chunkingMode(chunkingMode)
+                    .build());
+
+            //원본 문서가 같은 청킹 방식으로 학습을 끝냈으면 임베딩 없이 벡터만 복사
+            if (sourceJob.isPresent() && sourceJob.get().getStatus() == IngestionStatus.READY
+                    && sourceJob.get().getChunkingMode() == chunkingMode) {
+                int copied = embeddingRepository.copyEmbeddings(sharedSource.get().getId(), savedDocument.getId(), member.getId());
+                job.markEmbedding(copied);
+                job.addEmbeddedChunks(copied);
+                job.markReady();
+                log.info("같은 내용의 문서에서 벡터 {}개 복사: documentId={}", copied, savedDocument.getId());
+                eventPublisher.publishEvent(new DocumentsChangedEvent(member.getId()));
+                return job;
+            }
+            eventPublisher.publishEvent(new IngestionRequestedEvent(job.getId()));
+
+            return job; //최종 변환
+        } finally {
+            //요청 몫 반납 (업로드나 워커가 아직 쓰는 중이면 그쪽이 끝날 때 삭제)
+            staged.release();
+        }
+    }
+
+    //S3에 원본이 없고 업로드 중도 아니면 받아둔 파일로 다시 업로드
+    private void ensureOriginal(StagedUploads.StagedFile staged, String key, String contentType) {
+        if (stagedUploads.isUploading(key) || objectExists(key)) {
+            return;
+        }
+        log.info("S3 원본이 없어 다시 업로드: {}", key);
+        stagedUploads.upload(staged, key, contentType);
+    }
+
+    private boolean objectExists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 클라이언트가 S3 버킷에 직접 올릴 수 있는 presigned PUT URL 발급
+     * - 파일은 서버를 거치지 않음, 올린 뒤 completeUpload로 등록해야 학습이 시작됨
+     * - 키는 회원별 임시 경로(uploads/{memberId}/) 아래에 만들어서 완료 요청 때 소유자 확인
+     * - 등록되지 않은 파일은 임시 경로에 남으므로, 버킷에 uploads/ 대상 만료(lifecycle) 규칙을 두면 자동 정리됨
+     */
+    public PresignedUploadResponse createUploadUrl(Long memberId, String originalFileName, String contentType) {
+        if (originalFileName == null || originalFileName.isBlank()) {
+            throw new IllegalArgumentException("파일 이름이 없습니다.");
+        }
+        if (FileFormat.of(originalFileName, contentType) == null) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + contentType);
+        }
+
+        //경로 구분자가 키에 섞이지 않도록 치환
+        String key = uploadPrefix(memberId) + UUID.randomUUID() + "-" + originalFileName.replaceAll("[/\\\\]", "_");
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(Duration.ofMinutes(presignExpiryMinutes))
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build()));
+
+        return new PresignedUploadResponse(key, presigned.url().toString(), presigned.expiration());
+    }
+
+    /**
+     * presigned URL로 올린 파일을 문서로 등록하고 학습 작업 시작
+     * - 받아들인 파일은 임시 경로에서 영구 경로(originals/{memberId}/)로 복사하고 임시 객체는 삭제 예약
+     *   (uploads/ 만료 규칙이 등록된 원본까지 지우지 않도록)
+     * - 크기 제한을 넘는 파일은 거절하면서 바로 삭제 예약
+     * - S3 요청은 트랜잭션 밖에서 처리 (DB 커넥션을 잡고 기다리지 않음)
+     * - 원본 해시(중복 확인용)는 워커가 추출하면서 계산
+     * - 같은 키로 다시 요청하면 기존 작업을 그대로 돌려줌 (클라이언트 재시도 대비)
+     */
+    public IngestionJob completeUpload(Long memberId, String key, String originalFileName, String contentType,
+                                       ChunkingMode chunking) {
+        //다른 회원 경로의 키는 거부
+        if (key == null || !key.startsWith(uploadPrefix(memberId))) {
+            throw new IllegalArgumentException("업로드 키가 올바르지 않습니다.");
+        }
+        FileFormat format = FileFormat.of(originalFileName, contentType);
+        if (format == null) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + contentType);
+        }
+        ChunkingMode chunkingMode = chunkingStrategies.resolve(chunking, format);
+
+        String originalKey = ORIGINAL_PREFIX + key.substring(UPLOAD_PREFIX.length());
+        Optional<IngestionJob> existing = ingestionJobRepository.findFirstByS3KeyOrderByIdDesc(originalKey);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        //실제로 올라왔는지, 크기 제한을 넘지 않는지 확인
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new IllegalArgumentException("업로드된 파일이 없습니다.");
+        }
+        if (head.contentLength() > maxUploadSizeMb * 1024L * 1024L) {
+            s3CleanupService.discard(key);
+            throw new IllegalArgumentException("파일이 너무 큽니다. (최대 " + maxUploadSizeMb + "MB)");
+        }
+
+        //S3 안에서 복사 (파일이 서버를 거치지 않음)
+        s3Client.copyObject(CopyObjectRequest.builder()
+                .sourceBucket(bucket)
+                .sourceKey(key)
+                .destinationBucket(bucket)
+                .destinationKey(originalKey)
+                .build());
+
+        try {
+            return transactionTemplate.execute(status -> register(memberId, key, originalKey, originalFileName,
+                    contentType, chunkingMode, head.contentLength()));
+        } catch (RuntimeException e) {
+            //등록에 실패하면 복사한 원본도 정리 (동시에 들어온 재시도가 이미 등록했으면 유지)
+            if (!ingestionJobRepository.existsByS3Key(originalKey)) {
+                s3CleanupService.discard(originalKey);
             }
-            log.info("벡터 데이터 {}개 저장 완료!", chunks.size());
+            throw e;
         }
+    }
 
-        return savedDocument; //최종 변환
+    //직접 업로드 문서와 학습 작업 저장 (임시 객체 삭제 예약과 같은 트랜잭션)
+    private IngestionJob register(Long memberId, String key, String originalKey, String originalFileName,
+                                  String contentType, ChunkingMode chunkingMode, long size) {
+        Document savedDocument = documentRepository.save(Document.builder()
+                .originalFileName(originalFileName)
+                .s3FileUrl(s3Client.utilities().getUrl(GetUrlRequest.builder()
+                        .bucket(bucket)
+                        .key(originalKey)
+                        .build()).toString())
+                .member(memberRepository.getReferenceById(memberId))
+                .build());
+
+        IngestionJob job = ingestionJobRepository.save(IngestionJob.builder()
+                .document(savedDocument)
+                .s3Key(originalKey)
+                .contentType(contentType)
+                .chunkingMode(chunkingMode)
+                .build());
+        s3CleanupService.enqueue(List.of(key));
+        log.info("직접 업로드 파일 등록: documentId={}, key={}, {} bytes", savedDocument.getId(), originalKey, size);
+
+        eventPublisher.publishEvent(new IngestionRequestedEvent(job.getId()));
+        return job;
     }
 
+    private String uploadPrefix(Long memberId) {
+        return UPLOAD_PREFIX + memberId + "/";
+    }
+
+    /**
+     * 문서의 학습 진행 상황 조회
+     */
     @Transactional(readOnly = true)
-    public List<Document> getMemberDocuments(String memberEmail) {
-        Member member = memberRepository.findByEmail(memberEmail)
-                .orElseThrow(() -> new IllegalArgumentException("회원 없음"));
+    public IngestionJob getIngestionStatus(Long documentId, Long memberId) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new IllegalArgumentException("문서가 존재하지 않습니다."));
+
+        //권한 확인
+        if (!document.getMember().getId().equals(memberId)) {
+            throw new IllegalArgumentException("이 문서를 조회할 권한이 없습니다.");
+        }
 
-        return documentRepository.findByMemberId(member.getId());
+        return ingestionJobRepository.findFirstByDocumentIdOrderByIdDesc(documentId)
+                .orElseThrow(() -> new IllegalArgumentException("학습 작업이 존재하지 않습니다."));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Document> getMemberDocuments(Long memberId) {
+        return documentRepository.findByMemberId(memberId);
     }
 
     @Transactional
-    public void deleteDocument(Long documentId, String memberEmail) {
+    public void deleteDocument(Long documentId, Long memberId) {
+        deleteDocuments(List.of(documentId), memberId);
+    }
+
+    /**
+     * 문서 여러 개 삭제
+     * - 벡터 조각, 학습 작업, 문서를 각각 DELETE 한 번으로 지움 (엔티티를 하나씩 불러오지 않음)
+     * - S3 원본은 삭제 대기열에 넣고 백그라운드 워커가 모아서 삭제 (요청은 S3를 기다리지 않음)
+     */
+    @Transactional
+    public void deleteDocuments(List<Long> documentIds, Long memberId) {
+        if (documentIds == null || documentIds.isEmpty()) {
+            throw new IllegalArgumentException("삭제할 문서가 없습니다.");
+        }
+        if (documentIds.size() > maxBulkDelete) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxBulkDelete + "개까지 삭제할 수 있습니다.");
+        }
+
         //문서 조회
-        Document document = documentRepository.findById(documentId)
-                .orElseThrow(() -> new IllegalArgumentException("문서가 존재하지 않습니다."));
+        Set<Long> ids = new LinkedHashSet<>(documentIds);
+        List<Document> documents = documentRepository.findAllById(ids);
+        if (documents.size() != ids.size()) {
+            throw new IllegalArgumentException("문서가 존재하지 않습니다.");
+        }
 
         //권한 확인
-        if (!document.getMember().getEmail().equals(memberEmail)) {
-            throw new IllegalArgumentException("이 문서를 삭제할 권한이 없습니다.");
+        for (Document document : documents) {
+            if (!document.getMember().getId().equals(memberId)) {
+                throw new IllegalArgumentException("이 문서를 삭제할 권한이 없습니다.");
+            }
         }
 
+        //같은 원본을 다른 문서도 쓰고 있으면 S3 객체는 남겨둠
+        Set<String> s3Keys = new LinkedHashSet<>();
+        documents.stream().map(Document::getS3FileUrl).distinct().forEach(s3FileUrl -> {
+            if (documentRepository.countByS3FileUrlAndIdNotIn(s3FileUrl, ids) > 0) {
+                log.info("S3 원본을 공유하는 문서가 있어 파일은 유지: {}", s3FileUrl);
+                return;
+            }
+            String key = toS3Key(s3FileUrl);
+            if (key != null) {
+                s3Keys.add(key);
+            }
+        });
+
+        int embeddings = embeddingRepository.deleteByDocumentIdIn(ids);
+        ingestionJobRepository.deleteByDocumentIdIn(ids);
+        documentRepository.deleteAllByIdInBatch(ids);
+        log.info("문서 {}개 삭제 (벡터 조각 {}개)", ids.size(), embeddings);
+
+        if (!s3Keys.isEmpty()) {
+            s3CleanupService.enqueue(s3Keys);
+        }
+        eventPublisher.publishEvent(new DocumentsChangedEvent(memberId));
+    }
+
+    //S3 URL에서 객체 키 추출 (잘못된 URL이면 null, 파일은 남고 DB 삭제는 진행)
+    private String toS3Key(String s3FileUrl) {
         try {
             //URL 객체로 만들어서 경로만 뽑아냄
-            URL url = new URL(document.getS3FileUrl());
-            String objectKey = url.getPath();
+            String objectKey = new URL(s3FileUrl).getPath();
 
             //맨 앞의 슬래시 제거
             if (objectKey.startsWith("/")) {
@@ -163,22 +434,11 @@ public class DocumentService {
             }
 
             //한글 디코딩
-            String fileKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8.toString());
-
-            log.info("최종 삭제 요청 키: [{}]", fileKey);
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(fileKey)
-                    .build();
-
-            s3Client.deleteObject(deleteObjectRequest);
-            log.info("S3 파일 삭제 요청 완료");
+            return URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
         } catch (Exception e) {
-            // s3에 파일 없어도 DB 삭제는 진행하기 위해 로그만 찍음
-            log.error("S3 파일 삭제 실패 (DB 삭제는 진행): {}", e.getMessage());
+            log.error("S3 키 추출 실패 (DB 삭제는 진행): {}, {}", s3FileUrl, e.getMessage());
+            return null;
         }
-        //DB에서 문서 정보 삭제
-        documentRepository.delete(document);
     }
 }
 
@@ -0,0 +1,4 @@
+package com.rag.project.api.service;
+
+//회원의 검색 대상 문서(업로드/삭제/학습 완료)가 바뀌었음을 알리는 이벤트 (답변 캐시 무효화용)
+public record DocumentsChangedEvent(Long memberId) {}
@@ -1,10 +1,18 @@
 package com.rag.project.api.service;
 
+import com.rag.project.api.component.EmbeddingCache;
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.TokenCounter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 
 @Slf4j
 @Service
@@ -13,22 +21,105 @@ public class EmbeddingService {
 
     //스프링 ai가 자동으로 주입해주는 임베딩 도구
     private final EmbeddingModel embeddingModel;
+    private final TokenCounter tokenCounter;
+    private final EmbeddingCache embeddingCache; //같은 질문 재계산 방지
+    private final ModelGateway modelGateway; //모델 호출 속도/동시 호출 수 제한, 재시도
+
+    //한 번의 요청에 담을 최대 청크 수 (OpenAI 제한: 요청당 2048개)
+    @Value("${rag.embedding.batch-size:100}")
+    private int batchSize;
+
+    //한 번의 요청에 담을 최대 토큰 수 (OpenAI 제한: 요청당 300,000 토큰)
+    @Value("${rag.embedding.batch-token-budget:100000}")
+    private int batchTokenBudget;
+
+    public int getBatchSize(){
+        return batchSize;
+    }
 
     /**
      * 텍스트를 벡터로 변환
+     * - 캐시에 있으면 모델을 호출하지 않음
      */
     public float[] getEmbedding(String text){
+        Optional<float[]> cached = embeddingCache.get(text);
+        if(cached.isPresent()){
+            log.debug("임베딩 캐시 적중. 텍스트 길이: {}", text.length());
+            return cached.get();
+        }
+
         log.info("Spring AI 임베딩 변환 시작. 텍스트 길이: {}", text.length());
 
         try{
             //Spring AI에게 텍스트를 주고 임베딩 요청
-            float[] vector = embeddingModel.embed(text);
+            float[] vector = modelGateway.call(ModelGateway.Model.EMBEDDING, tokenCounter.count(text),
+                    () -> embeddingModel.embed(text));
 
             log.info("임베딩 성공. 벡터 차원: {}", vector.length);
+            embeddingCache.put(text, vector);
             return vector;
-        }catch(Exception e){
+        }catch(RuntimeException e){
+            //원래 예외 그대로 던짐 (한도 초과는 429, 학습 작업은 이어서 재시도)
             log.error("Spring AI 임베딩 실패: {}", e.getMessage());
-            throw new RuntimeException("임베딩 변환 중 오류 발생", e);
+            throw e;
+        }
+    }
+
+    /**
+     * 여러 텍스트를 배치 단위로 묶어서 벡터로 변환
+     * - 청크마다 요청하지 않고, 배치 크기/토큰 예산 안에서 한 번에 요청
+     * - 반환 순서는 입력 순서와 같음
+     */
+    public List<float[]> getEmbeddings(List<String> texts){
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        if(texts.isEmpty()){
+            return vectors;
+        }
+
+        List<List<String>> batches = partition(texts);
+        log.info("Spring AI 배치 임베딩 시작. 텍스트 {}개 -> 요청 {}회", texts.size(), batches.size());
+
+        for (List<String> batch : batches) {
+            try{
+                int tokens = batch.stream().mapToInt(tokenCounter::count).sum();
+                List<float[]> batchVectors = modelGateway.call(ModelGateway.Model.EMBEDDING, tokens,
+                        () -> embeddingModel.embed(batch));
+                if(batchVectors.size() != batch.size()){
+                    throw new IllegalStateException("요청 " + batch.size() + "개, 응답 " + batchVectors.size() + "개");
+                }
+                vectors.addAll(batchVectors);
+            }catch(RuntimeException e){
+                log.error("Spring AI 배치 임베딩 실패: {}", e.getMessage());
+                throw e;
+            }
+        }
+        log.info("배치 임베딩 성공. 벡터 {}개", vectors.size());
+        return vectors;
+    }
+
+    /**
+     * 배치 크기와 토큰 예산을 넘지 않도록 텍스트를 묶음
+     * - 토큰 예산보다 큰 텍스트 하나는 단독 배치로 보냄
+     */
+    public List<List<String>> partition(List<String> texts){
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentTokens = 0;
+
+        for (String text : texts) {
+            int tokens = tokenCounter.count(text);
+            boolean full = current.size() >= batchSize || currentTokens + tokens > batchTokenBudget;
+            if(!current.isEmpty() && full){
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(text);
+            currentTokens += tokens;
+        }
+        if(!current.isEmpty()){
+            batches.add(current);
         }
+        return batches;
     }
 }
@@ -0,0 +1,4 @@
+package com.rag.project.api.service;
+
+//학습 작업이 등록되었음을 알리는 이벤트 (트랜잭션 커밋 후 워커에 전달)
+public record IngestionRequestedEvent(Long jobId) {}
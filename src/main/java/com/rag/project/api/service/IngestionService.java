@@ -0,0 +1,327 @@
+package com.rag.project.api.service;
+
+import com.rag.project.api.component.FileHandler;
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.S3RangedInputStream;
+import com.rag.project.api.component.SchemaManager;
+import com.rag.project.api.component.StagedUploads;
+import com.rag.project.api.component.chunking.ChunkingStrategies;
+import com.rag.project.api.domain.*;
+import com.rag.project.api.util.HashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 문서 학습 백그라운드 처리
+ * - S3 원본 다운로드(업로드 중이면 로컬 임시 파일) -> 텍스트 추출 -> 청킹 -> 배치 임베딩 -> 저장 (추출과 동시에 흘려가며 처리)
+ * - 배치마다 짧은 트랜잭션으로 저장하고 진행 상황(청크 수)을 갱신
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionService {
+
+    private final IngestionJobRepository jobRepository;
+    private final DocumentEmbeddingRepository embeddingRepository;
+    private final EmbeddingService embeddingService;
+    private final FileHandler fileHandler;
+    private final ChunkingStrategies chunkingStrategies;
+    private final SchemaManager schemaManager;
+    private final S3Client s3Client;
+    private final StagedUploads stagedUploads;
+    private final ThreadPoolTaskExecutor ingestionExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    //현재 이 서버에서 처리 중이거나 워커 큐에 들어간 작업 (중복 실행 방지)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${aws.s3.bucket}")
+    private String bucket;
+
+    //S3 원본을 나눠 받을 구간 크기 (끊기면 이 구간 안에서만 다시 받음)
+    @Value("${rag.s3.download.range-size-mb:8}")
+    private long rangeSizeMb;
+
+    //모델 한도 초과/일시 오류로 이어서 재시도할 최대 횟수 (넘으면 실패 처리)
+    @Value("${rag.ingestion.max-attempts:5}")
+    private int maxAttempts;
+
+    //업로드 트랜잭션이 커밋된 뒤에 워커에 전달 (커밋 전에는 워커가 작업을 못 찾음)
+    @TransactionalEventListener
+    public void onIngestionRequested(IngestionRequestedEvent event) {
+        submit(event.jobId());
+    }
+
+    /**
+     * 서버 시작 시, 이전 실행에서 중단된 작업을 다시 대기열에 올림
+     * - 저장까지 끝난 청크는 두고, 그 다음 청크부터 이어서 처리
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        List<IngestionJob> interrupted = jobRepository.findByStatusInOrderByIdAsc(
+                List.of(IngestionStatus.EXTRACTING, IngestionStatus.EMBEDDING));
+
+        for (IngestionJob job : interrupted) {
+            if (inFlight.contains(job.getId())) {
+                continue;
+            }
+            updateJob(job.getId(), IngestionJob::resume);
+            log.info("중단된 학습 작업 재등록: jobId={}, 저장된 청크 {}개 이후부터", job.getId(), job.getEmbeddedChunks());
+        }
+        sweepQueuedJobs();
+    }
+
+    /**
+     * 대기 중(QUEUED)인데 워커에 없는 작업을 주기적으로 다시 제출
+     * - 워커 큐가 가득 차서 거절됐던 작업, 재시작 전에 대기 중이던 작업
+     */
+    @Scheduled(fixedDelayString = "${rag.ingestion.sweep-interval-ms:30000}",
+            initialDelayString = "${rag.ingestion.sweep-interval-ms:30000}")
+    public void sweepQueuedJobs() {
+        jobRepository.findByStatusInOrderByIdAsc(List.of(IngestionStatus.QUEUED))
+                .forEach(job -> submit(job.getId()));
+    }
+
+    //작업을 워커 풀에 제출
+    public void submit(Long jobId) {
+        if (!inFlight.add(jobId)) {
+            return; //이미 처리 중
+        }
+        try {
+            ingestionExecutor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobId);
+            log.warn("학습 대기열이 가득 참, 다음 스윕에서 재시도: jobId={}", jobId);
+        }
+    }
+
+    //워커 스레드에서 실행되는 실제 학습 로직
+    void process(Long jobId) {
+        //작업 시작 처리 (필요한 값만 꺼내둠, 엔티티는 트랜잭션 밖에서 쓰지 않음)
+        JobSpec spec = transactionTemplate.execute(status -> {
+            IngestionJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || job.isFinished()) {
+                return null; //삭제됐거나 이미 끝난 작업
+            }
+            job.markExtracting();
+            Document document = job.getDocument();
+            return new JobSpec(job.getId(), document.getId(), document.getMember().getId(), job.getS3Key(),
+                    document.getOriginalFileName(), job.getContentType(), job.getChunkingMode(),
+                    job.getEmbeddedChunks(), job.getAttempts(), document.getContentHash() == null);
+        });
+        if (spec == null) {
+            return;
+        }
+
+        //아직 S3에 올라가는 중인 원본이면 로컬 임시 파일에서 바로 읽음 (업로드와 학습을 동시에 진행)
+        Optional<StagedUploads.StagedFile> staged = stagedUploads.acquire(spec.s3Key());
+        try {
+            //원본을 읽어 추출 -> 청킹 -> 임베딩 -> 저장을 흘려가며 처리 (파일 전체를 메모리에 두지 않음)
+            ChunkBuffer chunks = new ChunkBuffer(jobId, spec);
+            int total;
+            String contentHash = null;
+            try (InputStream source = staged.isPresent() ? staged.get().open()
+                    : new S3RangedInputStream(s3Client, bucket, spec.s3Key(), rangeSizeMb * 1024L * 1024L)) {
+                //직접 업로드된 원본은 해시가 없으므로 추출하면서 같이 계산
+                HashingInputStream hashing = spec.hashContent() ? new HashingInputStream(source) : null;
+                total = fileHandler.extractChunks(hashing != null ? hashing : source, spec.fileName(), spec.contentType(),
+                        chunkingStrategies.get(spec.chunkingMode()), chunks);
+                if (hashing != null) {
+                    contentHash = hashing.finish();
+                }
+            }
+            chunks.flush();
+
+            //원본이 S3에 다 올라가야 완료 처리 (업로드 실패 시 이어서 읽을 원본이 없으므로 재시도 없이 실패)
+            if (staged.isPresent()) {
+                try {
+                    staged.get().awaitUploaded();
+                } catch (RuntimeException e) {
+                    throw new OriginalUploadFailedException(e);
+                }
+            }
+
+            String hash = contentHash;
+            updateJob(jobId, job -> {
+                job.markEmbedding(total);
+                job.markReady();
+                if (hash != null) {
+                    job.getDocument().updateContentHash(hash);
+                }
+            });
+            log.info("문서 학습 완료: jobId={}, 벡터 데이터 {}개", jobId, total);
+
+        } catch (Exception e) {
+            //모델 한도 초과나 일시 오류는 저장된 청크 다음부터 다음 스윕에서 이어서 처리
+            if (!(e instanceof OriginalUploadFailedException) && ModelGateway.isRetryable(e) && spec.attempts() < maxAttempts) {
+                log.warn("문서 학습 중단, 이어서 재시도 예정: jobId={}, 시도 {}/{}, {}",
+                        jobId, spec.attempts(), maxAttempts, e.getMessage());
+                updateJob(jobId, IngestionJob::resume);
+                return;
+            }
+            log.error("문서 학습 실패: jobId={}, {}", jobId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(status -> {
+                //실패한 문서의 조각이 검색되지 않도록 중간까지 저장된 조각 삭제
+                embeddingRepository.deleteByDocumentId(spec.documentId());
+                jobRepository.findById(jobId).ifPresent(job -> job.markFailed(String.valueOf(e.getMessage())));
+            });
+            return;
+        } finally {
+            staged.ifPresent(StagedUploads.StagedFile::release);
+            //검색 대상 조각이 바뀌었으므로 회원의 답변 캐시 무효화
+            eventPublisher.publishEvent(new DocumentsChangedEvent(spec.memberId()));
+        }
+
+        try {
+            //조각이 많아진 회원은 전용 부분 인덱스 생성 (설정 시)
+            schemaManager.ensureMemberIndex(spec.memberId());
+        } catch (Exception e) {
+            log.error("회원별 벡터 인덱스 생성 실패: memberId={}, {}", spec.memberId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 이미 저장된 같은 텍스트 조각(공통 표지, 서식 문구 등)은 벡터를 재사용하고 나머지만 임베딩
+     */
+    private List<float[]> embedWithReuse(List<String> segments) {
+        List<String> hashes = segments.stream().map(HashUtil::sha256Hex).toList();
+        Map<String, float[]> known = new HashMap<>(embeddingRepository.findVectorsByChunkHashes(new HashSet<>(hashes)));
+
+        //처음 보는 조각만 (배치 안에서 중복된 조각도 한 번만) 모델에 요청
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            if (!known.containsKey(hashes.get(i))) {
+                missing.putIfAbsent(hashes.get(i), segments.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<String> missingHashes = new ArrayList<>(missing.keySet());
+            List<float[]> embedded = embeddingService.getEmbeddings(new ArrayList<>(missing.values()));
+            for (int i = 0; i < missingHashes.size(); i++) {
+                known.put(missingHashes.get(i), embedded.get(i));
+            }
+        }
+        log.debug("조각 {}개 중 {}개 벡터 재사용", segments.size(), segments.size() - missing.size());
+
+        return hashes.stream().map(known::get).toList();
+    }
+
+    private void saveBatch(Long jobId, JobSpec spec, List<String> segments, List<float[]> vectors, int producedChunks) {
+        transactionTemplate.executeWithoutResult(status -> {
+            //행마다 INSERT 하지 않고 multi-row INSERT로 한 번에 저장
+            embeddingRepository.bulkInsert(spec.documentId(), spec.memberId(), segments, vectors);
+            jobRepository.findById(jobId).ifPresent(job -> {
+                job.markEmbedding(producedChunks); //전체 수는 추출이 끝나야 확정되므로 지금까지 만든 청크 수
+                job.addEmbeddedChunks(segments.size());
+            });
+        });
+    }
+
+    private void updateJob(Long jobId, Consumer<IngestionJob> change) {
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.findById(jobId).ifPresent(change));
+    }
+
+    /**
+     * 추출 중에 만들어지는 청크를 모았다가, 배치 크기가 차면 임베딩 후 저장
+     * - 메모리에는 배치 하나 분량의 청크만 유지
+     * - 이어서 처리하는 경우, 이미 저장된 앞쪽 청크는 세기만 하고 건너뜀 (청킹 결과는 매번 같음)
+     */
+    private class ChunkBuffer implements Consumer<String> {
+
+        private final Long jobId;
+        private final JobSpec spec;
+        private final List<String> pending = new ArrayList<>();
+        private int produced;
+
+        ChunkBuffer(Long jobId, JobSpec spec) {
+            this.jobId = jobId;
+            this.spec = spec;
+        }
+
+        @Override
+        public void accept(String chunk) {
+            produced++;
+            if (produced <= spec.resumeFrom()) {
+                return;
+            }
+            pending.add(chunk);
+            if (pending.size() >= embeddingService.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            for (List<String> batch : embeddingService.partition(pending)) {
+                List<float[]> vectors = embedWithReuse(batch);
+                saveBatch(jobId, spec, batch, vectors, produced);
+            }
+            pending.clear();
+        }
+    }
+
+    //원본 S3 업로드 실패 (이어서 처리할 수 없음)
+    private static class OriginalUploadFailedException extends RuntimeException {
+        OriginalUploadFailedException(Throwable cause) {
+            super("원본 S3 업로드 실패: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 읽은 내용의 SHA-256을 계산하는 스트림
+     * - 추출기(POI 등)가 중간에 닫아도 나머지를 마저 읽어 원본 전체 해시를 낼 수 있도록 close는 무시 (원본 스트림은 호출한 쪽이 닫음)
+     */
+    private static class HashingInputStream extends DigestInputStream {
+
+        HashingInputStream(InputStream in) {
+            super(in, HashUtil.sha256());
+        }
+
+        @Override
+        public void close() {
+        }
+
+        //남은 부분까지 읽고 해시 반환
+        String finish() throws IOException {
+            transferTo(OutputStream.nullOutputStream());
+            return HashUtil.toHex(getMessageDigest().digest());
+        }
+    }
+
+    //워커가 트랜잭션 밖에서 사용하는 작업 정보
+    private record JobSpec(Long jobId, Long documentId, Long memberId, String s3Key, String fileName, String contentType,
+                           ChunkingMode chunkingMode, int resumeFrom, int attempts, boolean hashContent) {}
+}
@@ -51,7 +51,7 @@ public class MemberService implements UserDetailsService {
             throw new IllegalArgumentException("잘못된 비밀번호입니다.");
         }
         //비밀번호 일치 -> JWT 토큰 생성 및 반환
-        return jwtUtil.createToken(member.getEmail());
+        return jwtUtil.createToken(member.getId(), member.getEmail(), member.getRole());
     }
     /*
     Spring Security가 email(username)을 기반으로 사용자의 인증 정보 로드
@@ -0,0 +1,191 @@
+package com.rag.project.api.service;
+
+import com.rag.project.api.component.OriginalUploadedEvent;
+import com.rag.project.api.domain.IngestionJobRepository;
+import com.rag.project.api.domain.S3DeleteTask;
+import com.rag.project.api.domain.S3DeleteTaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * S3 원본 삭제 백그라운드 처리
+ * - 문서 삭제 요청은 삭제할 키를 대기열(S3DeleteTask)에 넣기만 하고 바로 끝남
+ * - 워커가 주기적으로 대기열을 모아서 DeleteObjects 한 번에 최대 1000개씩 삭제
+ * - 실패한 키는 간격을 두 배씩 늘려가며 재시도
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3CleanupService {
+
+    //DeleteObjects 한 번에 지울 수 있는 최대 키 수 (S3 제한)
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final S3DeleteTaskRepository taskRepository;
+    private final IngestionJobRepository jobRepository;
+    private final S3Client s3Client;
+    private final TransactionTemplate transactionTemplate;
+
+    //업로드가 끝나서 문서가 남아 있는지 확인할 키 (업로드 완료 콜백 -> 스윕)
+    private final Queue<String> uploadedKeys = new ConcurrentLinkedQueue<>();
+
+    @Value("${aws.s3.bucket}")
+    private String bucket;
+
+    //최대 시도 횟수 (넘으면 대기열에 남겨두고 더 시도하지 않음)
+    @Value("${rag.s3.delete.max-attempts:8}")
+    private int maxAttempts;
+
+    //첫 재시도 간격, 최대 재시도 간격
+    @Value("${rag.s3.delete.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    @Value("${rag.s3.delete.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    /**
+     * 삭제할 S3 키를 대기열에 등록
+     * - 문서 삭제와 같은 트랜잭션으로 저장되므로, 문서 삭제가 롤백되면 파일도 남음
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Collection<String> s3Keys) {
+        taskRepository.saveAll(s3Keys.stream()
+                .map(key -> S3DeleteTask.builder().s3Key(key).build())
+                .toList());
+        log.info("S3 파일 삭제 예약: {}개", s3Keys.size());
+    }
+
+    /**
+     * 문서로 등록되지 않는 S3 객체를 바로 삭제 예약 (거절된 직접 업로드 등)
+     * - 호출한 쪽 트랜잭션이 롤백돼도 남도록 별도 트랜잭션으로 저장
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void discard(String s3Key) {
+        taskRepository.save(S3DeleteTask.builder().s3Key(s3Key).build());
+        log.info("S3 파일 삭제 예약: {}", s3Key);
+    }
+
+    /**
+     * 백그라운드 업로드가 끝났는데 원본을 쓰는 문서가 없으면 (업로드 중에 삭제됨) 삭제 예약
+     * - 삭제 요청 때 등록된 작업은 아직 없는 키를 지우고 끝났을 수 있으므로, 업로드가 끝난 뒤에 다시 확인
+     * - 업로드는 문서 저장이 커밋된 뒤에 시작하므로, 작업 행이 없으면 실제로 삭제된 것
+     * - S3 클라이언트 스레드에서 DB를 쓰지 않도록 키만 모아두고 다음 스윕에서 확인
+     */
+    @EventListener
+    public void onOriginalUploaded(OriginalUploadedEvent event) {
+        uploadedKeys.add(event.s3Key());
+    }
+
+    private void checkUploadedOriginals() {
+        String key;
+        while ((key = uploadedKeys.poll()) != null) {
+            String s3Key = key;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!jobRepository.existsByS3Key(s3Key)) {
+                        log.info("업로드 중에 삭제된 문서의 원본 정리: {}", s3Key);
+                        taskRepository.save(S3DeleteTask.builder().s3Key(s3Key).build());
+                    }
+                });
+            } catch (RuntimeException e) {
+                //DB 오류면 다음 스윕에서 다시 확인
+                log.warn("업로드된 원본 확인 실패: {}, {}", s3Key, e.getMessage());
+                uploadedKeys.add(s3Key);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 시도할 시각이 된 삭제 작업을 모아서 처리 (한 번에 다 못 하면 다음 주기에 이어서)
+     */
+    @Scheduled(fixedDelayString = "${rag.s3.delete.sweep-interval-ms:5000}",
+            initialDelayString = "${rag.s3.delete.sweep-interval-ms:5000}")
+    public void processDueTasks() {
+        checkUploadedOriginals();
+        List<S3DeleteTask> due;
+        do {
+            due = taskRepository.findDue(LocalDateTime.now(), maxAttempts, PageRequest.ofSize(MAX_KEYS_PER_REQUEST));
+            if (due.isEmpty()) {
+                return;
+            }
+            //같은 키가 여러 번 등록됐어도 한 번만 요청
+            LinkedHashSet<String> keys = new LinkedHashSet<>();
+            due.forEach(task -> keys.add(task.getS3Key()));
+            Map<String, String> errors = deleteObjects(new ArrayList<>(keys));
+            complete(due, errors);
+        } while (due.size() == MAX_KEYS_PER_REQUEST);
+    }
+
+    //DeleteObjects 요청, 실패한 키 -> 사유 반환 (없는 키를 지우는 것은 성공으로 처리됨)
+    private Map<String, String> deleteObjects(List<String> keys) {
+        try {
+            List<S3Error> failed = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder()
+                            .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                            .quiet(true) //실패한 키만 응답에 포함
+                            .build())
+                    .build()).errors();
+
+            Map<String, String> errors = new HashMap<>();
+            failed.forEach(error -> errors.put(error.key(), error.code() + ": " + error.message()));
+            return errors;
+        } catch (SdkException e) {
+            //요청 자체가 실패하면 전부 재시도
+            log.warn("S3 일괄 삭제 요청 실패: {}개, {}", keys.size(), e.getMessage());
+            Map<String, String> errors = new HashMap<>();
+            keys.forEach(key -> errors.put(key, String.valueOf(e.getMessage())));
+            return errors;
+        }
+    }
+
+    private void complete(List<S3DeleteTask> tasks, Map<String, String> errors) {
+        List<Long> succeeded = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        tasks.forEach(task -> (errors.containsKey(task.getS3Key()) ? failed : succeeded).add(task.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.deleteAllByIdInBatch(succeeded);
+            taskRepository.findAllById(failed).forEach(task -> {
+                String error = errors.get(task.getS3Key());
+                task.markFailed(error, LocalDateTime.now().plusNanos(retryDelayMs(task.getAttempts()) * 1_000_000L));
+                if (task.getAttempts() >= maxAttempts) {
+                    log.error("S3 파일 삭제 포기: {}, {}", task.getS3Key(), error);
+                }
+            });
+        });
+        if (!succeeded.isEmpty()) {
+            log.info("S3 파일 삭제 완료: {}개", succeeded.size());
+        }
+    }
+
+    //시도 횟수마다 두 배씩 (최대 retryMaxDelayMs)
+    private long retryDelayMs(int attempts) {
+        return Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts, 20));
+    }
+}
@@ -1,6 +1,10 @@
 package com.rag.project.api.util;
 
+import com.rag.project.api.domain.MemberPrincipal;
+import com.rag.project.api.domain.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,47 +14,62 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 @Component // spring이 이 클래스를 관리하도록 빈으로 등록
 public class JwtUtil {
     private final SecretKey secretKey;
+    private final JwtParser parser; //한 번 만들어서 재사용 (thread-safe)
     private final long expirationTimeMs = 1000 * 60 * 60;
 
+    //회원 id / 권한 클레임 이름 (요청마다 회원을 조회하지 않도록 토큰에 담음)
+    private static final String MEMBER_ID_CLAIM = "mid";
+    private static final String ROLE_CLAIM = "role";
+
     //yml에 정의한 jwt.secret 값 주입
     public JwtUtil(@Value("${jwt.secret}") String secret){
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
     //토큰 설정
-    public String createToken(String email){
+    public String createToken(Long memberId, String email, Role role){
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTimeMs);
 
         return Jwts.builder()
                 .setSubject(email)
+                .claim(MEMBER_ID_CLAIM, memberId)
+                .claim(ROLE_CLAIM, role.name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(secretKey, SignatureAlgorithm.HS256) //사용할 암호화 알고리즘과 비밀키
                 .compact();
     }
 
-    public String getEmailToken(String token){
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token).getBody();
-        return claims.getSubject();
+    /**
+     * 토큰 검증(유효기간, 서명) + 클레임 추출을 한 번의 파싱으로 처리
+     *
+     * @return 유효하지 않은 토큰이면 empty
+     */
+    public Optional<Claims> parseClaims(String token){
+        try{
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        }catch(JwtException | IllegalArgumentException e){
+            return Optional.empty();
+        }
     }
 
-    //토큰 유효성 검증
-    public boolean validateToken(String token){
-        try{
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        }catch(Exception e){
-            return false;
+    /**
+     * 클레임에 담긴 회원 정보 (회원 id 클레임이 없는 이전 토큰이면 empty)
+     */
+    public Optional<MemberPrincipal> toPrincipal(Claims claims){
+        Long memberId = claims.get(MEMBER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if(memberId == null || role == null){
+            return Optional.empty();
         }
+        return Optional.of(new MemberPrincipal(memberId, claims.getSubject(), Role.valueOf(role)));
     }
 }
@@ -0,0 +1,183 @@
+package com.rag.project.api.component;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 백그라운드 S3 업로드를 S3 에뮬레이터(MinIO)로 확인
+ * - 업로드 중에도 워커가 임시 파일을 읽을 수 있고, 모두 반납한 뒤에만 임시 파일이 지워지는지
+ * - 멀티파트 기준 크기보다 큰 파일만 멀티파트로 올라가는지
+ * - 업로드가 실패하면 대기 중인 워커에 실패가 전달되고 임시 파일이 정리되는지
+ * - Docker가 없으면 건너뜀
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StagedUploadsTest {
+
+    private static final String BUCKET = "rag-test";
+    //S3 최소 조각 크기 (AwsS3Config와 같은 방식으로 기준 크기 = 조각 크기)
+    private static final long PART_SIZE = 5L * 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-01-16T16-07-38Z");
+
+    private static S3Client s3Client;
+    private static S3AsyncClient s3AsyncClient;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void setUpClients() {
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword()));
+        URI endpoint = URI.create(MINIO.getS3URL());
+
+        s3Client = S3Client.builder()
+                .credentialsProvider(credentials)
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .endpointOverride(endpoint)
+                .build();
+        s3AsyncClient = S3AsyncClient.builder()
+                .credentialsProvider(credentials)
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .endpointOverride(endpoint)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(PART_SIZE)
+                        .minimumPartSizeInBytes(PART_SIZE)
+                        .build())
+                .build();
+        s3Client.createBucket(builder -> builder.bucket(BUCKET));
+    }
+
+    @AfterAll
+    static void closeClients() {
+        s3AsyncClient.close();
+        s3Client.close();
+    }
+
+    @Test
+    void workerReadsStagedFileWhileUploadRuns() throws Exception {
+        StagedUploads uploads = stagedUploads(BUCKET);
+        byte[] content = randomBytes(3 * PART_SIZE + 1024);
+        String key = "uploads/1/large.pdf";
+
+        StagedUploads.StagedFile staged = uploads.stage(new ByteArrayInputStream(content));
+        Path path = staged.path();
+        uploads.upload(staged, key, "application/pdf");
+
+        //워커 몫을 먼저 잡고 요청 몫은 반납 (요청이 끝나도 워커는 임시 파일로 계속 학습)
+        Optional<StagedUploads.StagedFile> worker = uploads.acquire(key);
+        assertTrue(worker.isPresent());
+        staged.release();
+        try (InputStream in = worker.get().open()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        worker.get().awaitUploaded();
+        assertArrayEquals(content, s3Client.getObject(builder -> builder.bucket(BUCKET).key(key),
+                ResponseTransformer.toBytes()).asByteArray());
+        await(() -> events.contains(new OriginalUploadedEvent(key)));
+        assertFalse(uploads.isUploading(key));
+
+        //업로드가 끝나도 워커가 반납하기 전까지는 임시 파일 유지
+        assertTrue(Files.exists(path));
+        worker.get().release();
+        await(() -> !Files.exists(path));
+        assertTrue(uploads.acquire(key).isEmpty());
+    }
+
+    @Test
+    void onlyFilesOverThresholdUseMultipart() throws Exception {
+        StagedUploads uploads = stagedUploads(BUCKET);
+
+        HeadObjectResponse small = uploadAndHead(uploads, "uploads/1/small.pdf", randomBytes(PART_SIZE - 1));
+        HeadObjectResponse large = uploadAndHead(uploads, "uploads/1/large-multipart.pdf", randomBytes(2 * PART_SIZE + 1));
+
+        //멀티파트로 올린 객체의 ETag는 "<해시>-<조각 수>" 형식
+        assertFalse(small.eTag().contains("-"), small.eTag());
+        assertTrue(large.eTag().replace("\"", "").endsWith("-3"), large.eTag());
+        assertEquals(2 * PART_SIZE + 1, large.contentLength());
+    }
+
+    @Test
+    void failedUploadReachesWaitingWorkerAndCleansUp() throws Exception {
+        StagedUploads uploads = stagedUploads("missing-bucket");
+        String key = "uploads/1/failed.pdf";
+
+        StagedUploads.StagedFile staged = uploads.stage(new ByteArrayInputStream(randomBytes(1024)));
+        Path path = staged.path();
+        uploads.upload(staged, key, "application/pdf");
+
+        assertThrows(RuntimeException.class, staged::awaitUploaded);
+        staged.release();
+
+        await(() -> !uploads.isUploading(key) && !Files.exists(path));
+        assertTrue(events.isEmpty());
+    }
+
+    private StagedUploads stagedUploads(String bucket) {
+        StagedUploads uploads = new StagedUploads(s3AsyncClient, events::add);
+        ReflectionTestUtils.setField(uploads, "bucket", bucket);
+        return uploads;
+    }
+
+    private HeadObjectResponse uploadAndHead(StagedUploads uploads, String key, byte[] content) throws Exception {
+        StagedUploads.StagedFile staged = uploads.stage(new ByteArrayInputStream(content));
+        uploads.upload(staged, key, "application/pdf");
+        try {
+            staged.awaitUploaded();
+        } finally {
+            staged.release();
+        }
+        return s3Client.headObject(builder -> builder.bucket(BUCKET).key(key));
+    }
+
+    private static byte[] randomBytes(long size) {
+        byte[] bytes = new byte[(int) size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    //업로드 완료 콜백은 S3 클라이언트 스레드에서 돌기 때문에 조건이 맞을 때까지 잠깐 기다림
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("조건을 기다리다 시간 초과");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
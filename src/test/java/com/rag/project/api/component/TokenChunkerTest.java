@@ -0,0 +1,74 @@
+package com.rag.project.api.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 토큰 청커의 예산 경계 확인 (청크 토큰 수 상한, 글자 손실/깨짐 없음)
+ */
+class TokenChunkerTest {
+
+    private static final int CHUNK_SIZE = 50;
+
+    private final TokenCounter tokenCounter = new TokenCounter();
+    //짧은 청크도 버리지 않아야 원문 전체가 청크에 들어갔는지 비교 가능
+    private final TokenChunker chunker = new TokenChunker(tokenCounter, CHUNK_SIZE, 20, 0);
+
+    @Test
+    void shortTextIsSingleChunk() {
+        String text = "수강 신청 기간을 확인하세요.";
+
+        assertEquals(List.of(text), chunker.chunk(text));
+    }
+
+    @Test
+    void everyChunkFitsChunkSize() {
+        String text = "The quick brown fox jumps over the lazy dog. ".repeat(60);
+
+        List<String> chunks = chunker.chunk(text);
+
+        assertTrue(chunks.size() > 1);
+        chunks.forEach(chunk -> assertTrue(tokenCounter.count(chunk) <= CHUNK_SIZE, chunk));
+        assertEquals(withoutWhitespace(text), withoutWhitespace(String.join("", chunks)));
+    }
+
+    @Test
+    void multiByteTextIsNotCutInsideCharacters() {
+        String text = "수강 신청 기간과 정원, 선수 과목을 반드시 확인하세요 ".repeat(40);
+
+        List<String> chunks = chunker.chunk(text);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(tokenCounter.count(chunk) <= CHUNK_SIZE, chunk);
+            assertFalse(chunk.contains("\uFFFD"), chunk);
+        }
+        assertEquals(withoutWhitespace(text), withoutWhitespace(String.join("", chunks)));
+    }
+
+    @Test
+    void explicitBudgetOverridesChunkSize() {
+        String text = "The quick brown fox jumps over the lazy dog. ".repeat(20);
+
+        List<String> chunks = chunker.chunk(text, 10);
+
+        assertTrue(chunks.size() > 1);
+        chunks.forEach(chunk -> assertTrue(tokenCounter.count(chunk) <= 10, chunk));
+        assertEquals(withoutWhitespace(text), withoutWhitespace(String.join("", chunks)));
+    }
+
+    @Test
+    void nonPositiveBudgetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> chunker.split("text", 0));
+    }
+
+    private static String withoutWhitespace(String text) {
+        return text.replaceAll("\\s", "");
+    }
+}
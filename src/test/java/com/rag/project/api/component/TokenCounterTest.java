@@ -0,0 +1,34 @@
+package com.rag.project.api.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 토큰 수 기준 자르기가 여러 바이트 글자를 깨뜨리지 않는지 확인
+ */
+class TokenCounterTest {
+
+    private final TokenCounter tokenCounter = new TokenCounter();
+
+    @Test
+    void truncateKeepsWholeCharacters() {
+        //한글은 글자 하나가 여러 토큰으로 나뉘는 경우가 많아서 토큰 경계가 글자 중간에 옴
+        String text = "휴학 신청은 학기 시작 전까지 학사지원팀에 제출해야 합니다. 😀 복학은 별도 신청";
+
+        for (int maxTokens = 1; maxTokens <= tokenCounter.count(text); maxTokens++) {
+            String truncated = tokenCounter.truncate(text, maxTokens);
+            assertTrue(text.startsWith(truncated), truncated);
+            assertTrue(tokenCounter.count(truncated) <= maxTokens, truncated);
+        }
+    }
+
+    @Test
+    void truncateReturnsTextWithinLimitUnchanged() {
+        String text = "수강 신청 기간";
+
+        assertEquals(text, tokenCounter.truncate(text, tokenCounter.count(text)));
+        assertEquals("", tokenCounter.truncate(text, 0));
+    }
+}
@@ -0,0 +1,87 @@
+package com.rag.project.api.component.chunking;
+
+import com.rag.project.api.component.TokenChunker;
+import com.rag.project.api.component.TokenCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 제목을 붙인 청크도 chunkSize 토큰을 넘지 않는지, 예산 경계에서 단위를 제대로 모으는지 확인
+ */
+class ChunkPackerTest {
+
+    private static final int CHUNK_SIZE = 40;
+
+    private final TokenCounter tokenCounter = new TokenCounter();
+    private final TokenChunker tokenChunker = new TokenChunker(tokenCounter, CHUNK_SIZE, 10, 5);
+    private final List<String> chunks = new ArrayList<>();
+    private final ChunkPacker packer = new ChunkPacker(tokenChunker, tokenCounter, chunks::add, "\n");
+
+    @Test
+    void oversizedUnitWithPrefixStaysWithinChunkSize() {
+        String heading = "제 3 장 수강 신청 및 변경";
+        packer.setPrefix(heading);
+
+        packer.add("수강 신청 기간과 정원, 선수 과목을 반드시 확인하세요. ".repeat(30));
+        packer.flush();
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.startsWith(heading + "\n"), chunk);
+            assertTrue(tokenCounter.count(chunk) <= CHUNK_SIZE, chunk);
+        }
+    }
+
+    @Test
+    void unitsFillingBudgetExactlyStayTogether() {
+        String first = words(19);
+        String second = words(20);
+        assertEquals(CHUNK_SIZE, tokenCounter.count(first) + tokenCounter.count("\n") + tokenCounter.count(second));
+
+        packer.add(first);
+        packer.add(second);
+        packer.flush();
+
+        assertEquals(List.of(first + "\n" + second), chunks);
+        assertTrue(tokenCounter.count(chunks.get(0)) <= CHUNK_SIZE);
+    }
+
+    @Test
+    void unitOverBudgetByOneTokenStartsNewChunk() {
+        String first = words(19);
+        String second = words(21);
+
+        packer.add(first);
+        packer.add(second);
+        packer.flush();
+
+        assertEquals(List.of(first, second), chunks);
+    }
+
+    @Test
+    void prefixTokensAreReservedWhenPacking() {
+        packer.setPrefix("Heading");
+        //제목이 없으면 한 청크에 들어가는 크기 (19 + 줄바꿈 1 + 20 = 40)
+        String first = words(19);
+        String second = words(20);
+
+        packer.add(first);
+        packer.add(second);
+        packer.flush();
+
+        assertEquals(List.of("Heading\n" + first, "Heading\n" + second), chunks);
+        chunks.forEach(chunk -> assertTrue(tokenCounter.count(chunk) <= CHUNK_SIZE, chunk));
+    }
+
+    //"cat cat ... cat" (단어 하나가 1토큰)
+    private String words(int count) {
+        String text = "cat" + " cat".repeat(count - 1);
+        assertEquals(count, tokenCounter.count(text));
+        return text;
+    }
+}
@@ -0,0 +1,97 @@
+package com.rag.project.api.controller;
+
+import com.rag.project.api.component.PrincipalCache;
+import com.rag.project.api.config.SecurityConfig;
+import com.rag.project.api.domain.MemberPrincipal;
+import com.rag.project.api.domain.Role;
+import com.rag.project.api.filter.JwtAuthFilter;
+import com.rag.project.api.handler.OAuth2SuccessHandler;
+import com.rag.project.api.service.ChatService;
+import com.rag.project.api.service.ConversationService;
+import com.rag.project.api.service.CustomOAuth2UserService;
+import com.rag.project.api.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 스트리밍 채팅이 끝날 때의 비동기 재디스패치가 보안 필터에서 막히지 않는지 확인
+ */
+@WebMvcTest(ChatController.class)
+@Import({SecurityConfig.class, JwtAuthFilter.class})
+class ChatControllerStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChatService chatService;
+    @MockitoBean
+    private ConversationService conversationService;
+    @MockitoBean
+    private JwtUtil jwtUtil;
+    @MockitoBean
+    private PrincipalCache principalCache;
+    @MockitoBean
+    private CustomOAuth2UserService customOAuth2UserService;
+    @MockitoBean
+    private OAuth2SuccessHandler oAuth2SuccessHandler;
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @BeforeEach
+    void setUp() {
+        Claims claims = Jwts.claims().setSubject("member@test.com");
+        MemberPrincipal principal = new MemberPrincipal(1L, "member@test.com", Role.USER);
+        when(jwtUtil.parseClaims("token")).thenReturn(Optional.of(claims));
+        when(jwtUtil.toPrincipal(claims)).thenReturn(Optional.of(principal));
+        when(conversationService.openConversation(eq(1L), any(), anyString())).thenReturn(10L);
+        when(chatService.streamChat(anyString(), eq(1L), eq(10L), any())).thenReturn(Flux.just("안녕", "하세요"));
+    }
+
+    @Test
+    void asyncDispatchAfterStreamCompletesIsAuthorized() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/chat/stream")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"question\":\"질문\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:done")));
+    }
+
+    @Test
+    void streamWithoutTokenIsRejected() throws Exception {
+        mockMvc.perform(post("/api/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"question\":\"질문\"}"))
+                .andExpect(request().asyncNotStarted());
+    }
+}
@@ -0,0 +1,155 @@
+package com.rag.project.api.service;
+
+import com.rag.project.api.component.ModelGateway;
+import com.rag.project.api.component.TokenCounter;
+import com.rag.project.api.domain.ChatHistory;
+import com.rag.project.api.domain.ChatHistoryRepository;
+import com.rag.project.api.domain.Conversation;
+import com.rag.project.api.domain.ConversationSummary;
+import com.rag.project.api.domain.ConversationSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 요약과 프롬프트의 대화 기록 사이에 빠지는 대화가 없는지 확인
+ * - 대화 기록/요약 저장소는 메모리 목록으로 흉내 내고, 요약 워커와 ChatService의 기록 조회를 실제 코드로 실행
+ */
+class ConversationHistoryTest {
+
+    private static final long CONVERSATION_ID = 1L;
+    private static final int RECENT_MESSAGES = 4;
+    private static final int MIN_MESSAGES = 4;
+
+    private final List<ChatHistory> messages = new ArrayList<>();
+    private final AtomicReference<ConversationSummary> stored = new AtomicReference<>();
+
+    @Mock
+    private ChatHistoryRepository chatHistoryRepository;
+    @Mock
+    private ConversationSummaryRepository summaryRepository;
+    @Mock
+    private ModelGateway modelGateway;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatModel chatModel;
+
+    @InjectMocks
+    private ChatService chatService;
+
+    private ConversationSummarizer summarizer;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(chatHistoryRepository.findRecentChats(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(messages, inv.getArgument(1)));
+        when(chatHistoryRepository.findChatsAfter(eq(CONVERSATION_ID), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> newestFirst(messages.stream()
+                        .filter(h -> h.getId() > inv.<Long>getArgument(1))
+                        .toList(), inv.getArgument(2)));
+        when(chatHistoryRepository.findChatsBetween(eq(CONVERSATION_ID), anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> messages.stream()
+                        .filter(h -> h.getId() > inv.<Long>getArgument(1) && h.getId() < inv.<Long>getArgument(2))
+                        .limit(((Pageable) inv.getArgument(3)).getPageSize())
+                        .toList());
+        when(chatHistoryRepository.existsByConversationId(CONVERSATION_ID)).thenAnswer(inv -> !messages.isEmpty());
+
+        when(summaryRepository.findByConversationId(CONVERSATION_ID)).thenAnswer(inv -> Optional.ofNullable(stored.get()));
+        when(summaryRepository.save(any(ConversationSummary.class))).thenAnswer(inv -> {
+            stored.set(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+
+        when(modelGateway.call(any(), anyInt(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(2)).get());
+        when(chatModel.call(any(Prompt.class)).getResult().getOutput().getContent()).thenReturn("이전 대화 요약");
+
+        ReflectionTestUtils.setField(chatService, "recentMessages", RECENT_MESSAGES);
+        ReflectionTestUtils.setField(chatService, "maxUnsummarizedMessages", 24);
+
+        summarizer = new ConversationSummarizer(chatHistoryRepository, summaryRepository, chatModel, modelGateway,
+                new TokenCounter(), mock(ThreadPoolTaskExecutor.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(summarizer, "recentMessages", RECENT_MESSAGES);
+        ReflectionTestUtils.setField(summarizer, "minMessages", MIN_MESSAGES);
+        ReflectionTestUtils.setField(summarizer, "batchMessages", 20);
+        ReflectionTestUtils.setField(summarizer, "maxSummaryTokens", 400);
+        ReflectionTestUtils.setField(summarizer, "maxMessageTokens", 500);
+
+        conversation = mock(Conversation.class);
+        when(conversation.getId()).thenReturn(CONVERSATION_ID);
+    }
+
+    /**
+     * 최근 대화 창(4개)을 넘었지만 요약 기준(4개)이 아직 안 쌓인 5~7개 구간과, 처음 요약되는 8개
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {5, 6, 7, 8})
+    void everyMessageIsInSummaryOrPrompt(int count) {
+        for (int i = 1; i <= count; i++) {
+            addMessage(i);
+            summarizer.summarize(CONVERSATION_ID); //대화가 저장될 때마다 요약 워커 실행
+        }
+
+        ChatService.History history = chatService.loadHistory(conversation);
+
+        long lastChatId = stored.get() != null ? stored.get().getLastChatId() : 0L;
+        List<Long> inPrompt = history.recent().stream().map(ChatHistory::getId).toList();
+        for (ChatHistory message : messages) {
+            assertTrue(message.getId() <= lastChatId || inPrompt.contains(message.getId()),
+                    "요약에도 프롬프트에도 없는 대화: " + message.getId());
+        }
+        //요약된 대화는 다시 넣지 않고, 과거순으로 넣음
+        assertEquals(count - lastChatId, inPrompt.size());
+        assertEquals(inPrompt.stream().sorted().toList(), inPrompt);
+        if (count < RECENT_MESSAGES + MIN_MESSAGES) {
+            assertEquals(0L, lastChatId);
+        } else {
+            assertEquals("이전 대화 요약", history.summary());
+        }
+    }
+
+    private void addMessage(long id) {
+        ChatHistory message = ChatHistory.builder()
+                .role(id % 2 == 1 ? "USER" : "AI")
+                .content("메시지 " + id)
+                .build();
+        ReflectionTestUtils.setField(message, "id", id);
+        messages.add(message);
+    }
+
+    private static List<ChatHistory> newestFirst(List<ChatHistory> source, Pageable pageable) {
+        return source.stream()
+                .sorted(Comparator.comparing(ChatHistory::getId).reversed())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+}